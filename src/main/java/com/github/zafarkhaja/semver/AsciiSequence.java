@@ -0,0 +1,147 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2012-2016 Zafar Khaja <zafarkhaja@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.zafarkhaja.semver;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A read-only character sequence view over bytes.
+ *
+ * Every byte is mapped to the character with the same unsigned value,
+ * so the ASCII characters of the SemVer grammar are read without charset
+ * decoding, while the bytes of multi-byte UTF-8 sequences map to non-ASCII
+ * characters and are therefore rejected by the parser. The bytes are
+ * neither copied nor modified, only the subsequences are materialized.
+ *
+ * @author Zafar Khaja &lt;zafarkhaja@gmail.com&gt;
+ * @since 0.10.0
+ */
+class AsciiSequence implements CharSequence {
+
+    /**
+     * The underlying buffer.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * The index of the first byte of the sequence in the buffer.
+     */
+    private final int base;
+
+    /**
+     * The number of bytes in the sequence.
+     */
+    private final int length;
+
+    /**
+     * Constructs an {@code AsciiSequence} instance over the whole byte array.
+     *
+     * @param bytes the byte array to view
+     */
+    AsciiSequence(byte[] bytes) {
+        this(ByteBuffer.wrap(bytes), 0, bytes.length);
+    }
+
+    /**
+     * Constructs an {@code AsciiSequence} instance over the remaining
+     * bytes of the buffer, that is from its position to its limit.
+     *
+     * The position of the buffer is not modified by the sequence.
+     *
+     * @param buffer the buffer to view
+     */
+    AsciiSequence(ByteBuffer buffer) {
+        this(buffer, buffer.position(), buffer.remaining());
+    }
+
+    /**
+     * Constructs an {@code AsciiSequence} instance over a range of the buffer.
+     *
+     * @param buffer the buffer to view
+     * @param base the index of the first byte of the sequence
+     * @param length the number of bytes in the sequence
+     */
+    private AsciiSequence(ByteBuffer buffer, int base, int length) {
+        this.buffer = buffer;
+        this.base = base;
+        this.length = length;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int length() {
+        return length;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException(
+                "index " + index + ", length " + length
+            );
+        }
+        return (char) (buffer.get(base + index) & 0xFF);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || start > end || end > length) {
+            throw new IndexOutOfBoundsException(
+                "start " + start + ", end " + end + ", length " + length
+            );
+        }
+        return new AsciiSequence(buffer, base + start, end - start);
+    }
+
+    /**
+     * Decodes the bytes of the sequence as ISO-8859-1 characters.
+     *
+     * @return the string representation of the sequence
+     */
+    @Override
+    public String toString() {
+        if (buffer.hasArray()) {
+            return new String(
+                buffer.array(),
+                buffer.arrayOffset() + base,
+                length,
+                StandardCharsets.ISO_8859_1
+            );
+        }
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = buffer.get(base + i);
+        }
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+}
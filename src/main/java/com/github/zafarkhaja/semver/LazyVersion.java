@@ -0,0 +1,286 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2012-2016 Zafar Khaja <zafarkhaja@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.zafarkhaja.semver;
+
+import java.util.function.Predicate;
+
+/**
+ * A version string that is parsed on demand.
+ *
+ * The text is validated when the instance is created, but the version
+ * object is only built when its components are first needed, e.g. by
+ * the getters, comparisons or predicate tests. Versions that are merely
+ * passed through are never parsed.
+ *
+ * The lazy versions follow the semantics of the {@code Version} class:
+ * they are ordered and compared for equality by precedence, ignoring
+ * build metadata.
+ *
+ * @author Zafar Khaja &lt;zafarkhaja@gmail.com&gt;
+ * @see Version#lazy(CharSequence)
+ * @since 0.10.0
+ */
+public final class LazyVersion implements Comparable<LazyVersion> {
+
+    /**
+     * The raw version string.
+     */
+    private final String text;
+
+    /**
+     * The length of the text without the build metadata.
+     */
+    private final int precedenceLength;
+
+    /**
+     * Whether the text has all three version numbers.
+     */
+    private final boolean canonical;
+
+    /**
+     * The parsed version, {@code null} until first needed.
+     */
+    private Version version;
+
+    /**
+     * The cached hash code, computed on first use.
+     */
+    private int hash;
+
+    /**
+     * Constructs a {@code LazyVersion} instance for the version string.
+     *
+     * @param text the version string
+     * @throws IllegalArgumentException if the input is {@code NULL} or empty
+     * @throws ParseException when the input is not a valid version
+     */
+    LazyVersion(CharSequence text) {
+        if (!VersionParser.isValidSemVer(text)) {
+            VersionParser.parseValidSemVer(text, 0, text == null ? 0 : text.length());
+        }
+        this.text = text.toString();
+        int dots = 0;
+        int index = 0;
+        while (index < this.text.length()) {
+            char chr = this.text.charAt(index);
+            if (chr == '.') {
+                dots++;
+            } else if (chr == '-' || chr == '+') {
+                break;
+            }
+            index++;
+        }
+        int plus = this.text.indexOf('+', index);
+        this.precedenceLength = plus < 0 ? this.text.length() : plus;
+        this.canonical = dots == 2;
+    }
+
+    /**
+     * Returns the parsed version, parsing the text on the first call.
+     *
+     * @return the version object
+     */
+    public Version toVersion() {
+        Version result = version;
+        if (result == null) {
+            result = VersionParser.parseValidSemVer(text);
+            version = result;
+        }
+        return result;
+    }
+
+    /**
+     * Checks if the text has already been parsed.
+     *
+     * @return {@code true} if the version object has been built
+     */
+    boolean isParsed() {
+        return version != null;
+    }
+
+    /**
+     * Checks if the text is in the canonical form, i.e. has all three
+     * version numbers, so that it determines the precedence uniquely.
+     *
+     * @return {@code true} if the text is in the canonical form
+     */
+    boolean isCanonical() {
+        return canonical;
+    }
+
+    /**
+     * Returns the major version number.
+     *
+     * @return the major version number
+     */
+    public int getMajorVersion() {
+        return toVersion().getMajorVersion();
+    }
+
+    /**
+     * Returns the minor version number.
+     *
+     * @return the minor version number
+     */
+    public int getMinorVersion() {
+        return toVersion().getMinorVersion();
+    }
+
+    /**
+     * Returns the patch version number.
+     *
+     * @return the patch version number
+     */
+    public int getPatchVersion() {
+        return toVersion().getPatchVersion();
+    }
+
+    /**
+     * Returns the string representation of the pre-release version.
+     *
+     * @return the string representation of the pre-release version
+     */
+    public String getPreReleaseVersion() {
+        return toVersion().getPreReleaseVersion();
+    }
+
+    /**
+     * Returns the string representation of the build metadata.
+     *
+     * @return the string representation of the build metadata
+     */
+    public String getBuildMetadata() {
+        return toVersion().getBuildMetadata();
+    }
+
+    /**
+     * Checks if this version satisfies the specified Expression string.
+     *
+     * @param expr the Expression string
+     * @return {@code true} if this version satisfies the specified
+     *         Expression or {@code false} otherwise
+     * @see Version#satisfies(String)
+     */
+    public boolean satisfies(String expr) {
+        return toVersion().satisfies(expr);
+    }
+
+    /**
+     * Checks if this version satisfies the specified Expression.
+     *
+     * @param expr the Expression
+     * @return {@code true} if this version satisfies the specified
+     *         Expression or {@code false} otherwise
+     */
+    public boolean satisfies(Predicate<Version> expr) {
+        return expr.test(toVersion());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int compareTo(LazyVersion other) {
+        if (this == other || text.equals(other.text)) {
+            return 0;
+        }
+        return toVersion().compareTo(other.toVersion());
+    }
+
+    /**
+     * Checks if this version equals the other version.
+     *
+     * If both versions are in the canonical form the raw texts
+     * are compared without parsing.
+     *
+     * @param other the other version to compare to
+     * @return {@code true} if this version equals the other version
+     *         or {@code false} otherwise
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof LazyVersion)) {
+            return false;
+        }
+        LazyVersion that = (LazyVersion) other;
+        if (canonical && that.canonical) {
+            return precedenceLength == that.precedenceLength
+                && text.regionMatches(0, that.text, 0, precedenceLength);
+        }
+        return toVersion().equals(that.toVersion());
+    }
+
+    /**
+     * Returns the hash code of this version.
+     *
+     * If the text has no pre-release version the hash code is
+     * computed from the version numbers in the text without parsing.
+     *
+     * @return the hash code of this version
+     */
+    @Override
+    public int hashCode() {
+        int result = hash;
+        if (result == 0) {
+            result = hashPrecedence();
+            hash = result;
+        }
+        return result;
+    }
+
+    /**
+     * Computes the hash code from the text up to the build metadata,
+     * consistently with the hash code of the parsed version.
+     *
+     * @return the hash code of the version
+     */
+    private int hashPrecedence() {
+        int[] numbers = new int[3];
+        int part = 0;
+        for (int i = 0; i < precedenceLength; i++) {
+            char chr = text.charAt(i);
+            if (chr == '.') {
+                part++;
+            } else if (chr == '-') {
+                return toVersion().hashCode();
+            } else {
+                numbers[part] = numbers[part] * 10 + (chr - '0');
+            }
+        }
+        return Version.hashCode(numbers[0], numbers[1], numbers[2], 0);
+    }
+
+    /**
+     * Returns the raw version string.
+     *
+     * @return the raw version string
+     */
+    @Override
+    public String toString() {
+        return text;
+    }
+}
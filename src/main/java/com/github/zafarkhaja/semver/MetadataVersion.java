@@ -23,7 +23,9 @@
  */
 package com.github.zafarkhaja.semver;
 
+import java.io.IOException;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 /**
@@ -102,17 +104,149 @@ class MetadataVersion implements Comparable<MetadataVersion>, Serializable {
         }
     }
 
+    /**
+     * The value of the identifiers that are not numeric.
+     */
+    private static final long NON_NUMERIC = -1;
+
+    /**
+     * The value of the numeric identifiers too long to be held by a
+     * {@code long}, such identifiers are compared digit by digit.
+     */
+    private static final long OVERSIZED = -2;
+
+    /**
+     * The maximum number of significant digits held by a {@code long} value.
+     */
+    private static final int MAX_LONG_DIGITS = 18;
+
     /**
      * The array containing the version's identifiers.
      */
     private final String[] idents;
 
+    /**
+     * The values of the numeric identifiers parsed at construction,
+     * {@code OVERSIZED} for the numeric identifiers too long to be
+     * parsed and {@code NON_NUMERIC} for the other identifiers.
+     */
+    private final long[] values;
+
+    /**
+     * The cached string representation, computed on first use.
+     */
+    private transient String string;
+
+    /**
+     * The cached hash code, computed on first use.
+     */
+    private transient int hash;
+
     /**
      * Constructs a {@code MetadataVersion} instance with identifiers.
      * @param identifiers the version's identifiers
      */
     MetadataVersion(String[] identifiers) {
         idents = identifiers;
+        if (identifiers == null) {
+            values = null;
+            return;
+        }
+        values = new long[identifiers.length];
+        for (int i = 0; i < identifiers.length; i++) {
+            values[i] = valueOf(identifiers[i]);
+        }
+    }
+
+    /**
+     * Parses the value of a numeric identifier.
+     *
+     * An identifier is numeric if it consists of ASCII digits only.
+     *
+     * @param ident the identifier to parse
+     * @return the value of the identifier, {@code OVERSIZED}
+     *         or {@code NON_NUMERIC}
+     */
+    private static long valueOf(String ident) {
+        int length = ident.length();
+        if (length == 0) {
+            return NON_NUMERIC;
+        }
+        for (int i = 0; i < length; i++) {
+            char chr = ident.charAt(i);
+            if (chr < '0' || chr > '9') {
+                return NON_NUMERIC;
+            }
+        }
+        int from = firstSignificantDigit(ident);
+        if (length - from > MAX_LONG_DIGITS) {
+            return OVERSIZED;
+        }
+        long value = 0;
+        for (int i = from; i < length; i++) {
+            value = value * 10 + ident.charAt(i) - '0';
+        }
+        return value;
+    }
+
+    /**
+     * Returns the index of the first significant digit of a numeric
+     * identifier, that is the index after its leading zeroes.
+     *
+     * @param digits the numeric identifier
+     * @return the index of the first significant digit
+     */
+    private static int firstSignificantDigit(String digits) {
+        int index = 0;
+        while (index < digits.length() - 1 && digits.charAt(index) == '0') {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Compares two numeric identifiers digit by digit.
+     *
+     * A number with more significant digits is greater, the numbers with
+     * the same number of significant digits compare as their digits do.
+     *
+     * @param digits1 the first numeric identifier
+     * @param digits2 the second numeric identifier
+     * @return integer result of comparison compatible with
+     *         the {@code Comparable.compareTo} method
+     */
+    private static int compareDigits(String digits1, String digits2) {
+        int from1 = firstSignificantDigit(digits1);
+        int from2 = firstSignificantDigit(digits2);
+        int result = Integer.compare(
+            digits1.length() - from1,
+            digits2.length() - from2
+        );
+        for (int i = 0; result == 0 && from1 + i < digits1.length(); i++) {
+            result = Character.compare(
+                digits1.charAt(from1 + i),
+                digits2.charAt(from2 + i)
+            );
+        }
+        return result;
+    }
+
+    /**
+     * Adds one to a numeric identifier of any length.
+     *
+     * @param digits the numeric identifier
+     * @return the numeric identifier increased by one
+     */
+    private static String incrementDigits(String digits) {
+        char[] chars = digits.toCharArray();
+        for (int i = chars.length - 1; i >= 0; i--) {
+            if (chars[i] != '9') {
+                chars[i]++;
+                return new String(chars);
+            }
+            chars[i] = '0';
+        }
+        return "1" + new String(chars);
     }
 
     /**
@@ -121,18 +255,36 @@ class MetadataVersion implements Comparable<MetadataVersion>, Serializable {
      * @return a new instance of the {@code MetadataVersion} class
      */
     MetadataVersion increment() {
-        String[] ids  = idents;
-        String lastId = ids[ids.length - 1];
-        if (isInt(lastId)) {
-            int intId = Integer.parseInt(lastId);
-            ids[ids.length - 1] = String.valueOf(++intId);
+        String[] ids;
+        long lastValue = values[values.length - 1];
+        if (lastValue == OVERSIZED) {
+            ids = idents.clone();
+            ids[ids.length - 1] = incrementDigits(ids[ids.length - 1]);
+        } else if (lastValue != NON_NUMERIC) {
+            ids = idents.clone();
+            ids[ids.length - 1] = String.valueOf(lastValue + 1);
         } else {
-            ids = Arrays.copyOf(ids, ids.length + 1);
+            ids = Arrays.copyOf(idents, idents.length + 1);
             ids[ids.length - 1] = String.valueOf(0);
         }
         return new MetadataVersion(ids);
     }
 
+    /**
+     * Checks if this metadata version consists of the same identifiers
+     * as the other one, character for character.
+     *
+     * Unlike {@code equals} the method distinguishes the numeric identifiers
+     * that differ only in leading zeroes, as allowed in the build metadata.
+     *
+     * @param other the other metadata version to compare to
+     * @return {@code true} if the identifiers are identical
+     *         or {@code false} otherwise
+     */
+    boolean hasSameIdentifiers(MetadataVersion other) {
+        return Arrays.equals(idents, other.idents);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -146,7 +298,37 @@ class MetadataVersion implements Comparable<MetadataVersion>, Serializable {
      */
     @Override
     public int hashCode() {
-        return Arrays.hashCode(idents);
+        int result = hash;
+        if (result == 0) {
+            result = 1;
+            for (int i = 0; i < idents.length; i++) {
+                result = 31 * result + hashIdentifier(i);
+            }
+            hash = result;
+        }
+        return result;
+    }
+
+    /**
+     * Returns a hash code of the identifier consistent with the comparison.
+     *
+     * @param index the index of the identifier
+     * @return the hash code of the identifier
+     */
+    private int hashIdentifier(int index) {
+        long value = values[index];
+        if (value == NON_NUMERIC) {
+            return idents[index].hashCode();
+        }
+        if (value != OVERSIZED) {
+            return Long.hashCode(value);
+        }
+        String digits = idents[index];
+        int hash = 0;
+        for (int i = firstSignificantDigit(digits); i < digits.length(); i++) {
+            hash = 31 * hash + digits.charAt(i);
+        }
+        return hash;
     }
 
     /**
@@ -154,11 +336,150 @@ class MetadataVersion implements Comparable<MetadataVersion>, Serializable {
      */
     @Override
     public String toString() {
-        StringBuilder sb = new StringBuilder();
+        String result = string;
+        if (result == null) {
+            result = idents.length == 1 ? idents[0] : String.join(".", idents);
+            string = result;
+        }
+        return result;
+    }
+
+    /**
+     * Continues the 64-bit FNV-1a hash over the identifiers.
+     *
+     * The numeric identifiers are hashed without leading zeroes, and each
+     * identifier is followed by a zero byte, so that the hash is consistent
+     * with the comparison and independent of the platform.
+     *
+     * @param hash the hash of the preceding data
+     * @return the updated hash
+     */
+    long fingerprint(long hash) {
+        for (int i = 0; i < idents.length; i++) {
+            String ident = idents[i];
+            int from = values[i] == NON_NUMERIC ? 0 : firstSignificantDigit(ident);
+            for (int j = from; j < ident.length(); j++) {
+                hash = Version.fnv1a(hash, ident.charAt(j));
+            }
+            hash = Version.fnv1a(hash, 0);
+        }
+        return hash;
+    }
+
+    /**
+     * Returns the number of identifiers.
+     *
+     * @return the number of identifiers
+     */
+    int size() {
+        return idents.length;
+    }
+
+    /**
+     * Returns the identifier at the specified index.
+     *
+     * @param index the index of the identifier
+     * @return the identifier
+     */
+    String identifier(int index) {
+        return idents[index];
+    }
+
+    /**
+     * Checks if the identifier at the specified index is numeric.
+     *
+     * @param index the index of the identifier
+     * @return {@code true} if the identifier consists of digits only
+     *         or {@code false} otherwise
+     */
+    boolean isNumeric(int index) {
+        return values[index] != NON_NUMERIC;
+    }
+
+    /**
+     * Appends the identifiers separated by dots to the string builder.
+     *
+     * @param sb the string builder to append to
+     */
+    void appendTo(StringBuilder sb) {
+        String result = string;
+        if (result != null) {
+            sb.append(result);
+            return;
+        }
+        for (int i = 0; i < idents.length; i++) {
+            if (i > 0) {
+                sb.append('.');
+            }
+            sb.append(idents[i]);
+        }
+    }
+
+    /**
+     * Appends the identifiers separated by dots to the appendable.
+     *
+     * @param out the appendable to append to
+     * @throws IOException if the appendable fails to append
+     */
+    void appendTo(Appendable out) throws IOException {
+        for (int i = 0; i < idents.length; i++) {
+            if (i > 0) {
+                out.append('.');
+            }
+            out.append(idents[i]);
+        }
+    }
+
+    /**
+     * Returns the length of the string representation.
+     *
+     * @return the number of characters in the string representation
+     */
+    int length() {
+        int length = idents.length - 1;
         for (String ident : idents) {
-            sb.append(ident).append(".");
+            length += ident.length();
+        }
+        return length;
+    }
+
+    /**
+     * Writes the identifiers separated by dots into the byte array
+     * as ASCII characters.
+     *
+     * @param dst the byte array to write to
+     * @param offset the index to start writing at
+     * @return the index after the last written byte
+     */
+    int writeTo(byte[] dst, int offset) {
+        for (int i = 0; i < idents.length; i++) {
+            if (i > 0) {
+                dst[offset++] = '.';
+            }
+            String ident = idents[i];
+            for (int j = 0; j < ident.length(); j++) {
+                dst[offset++] = (byte) ident.charAt(j);
+            }
+        }
+        return offset;
+    }
+
+    /**
+     * Writes the identifiers separated by dots into the buffer
+     * as ASCII characters.
+     *
+     * @param dst the buffer to write to
+     */
+    void writeTo(ByteBuffer dst) {
+        for (int i = 0; i < idents.length; i++) {
+            if (i > 0) {
+                dst.put((byte) '.');
+            }
+            String ident = idents[i];
+            for (int j = 0; j < ident.length(); j++) {
+                dst.put((byte) ident.charAt(j));
+            }
         }
-        return sb.deleteCharAt(sb.lastIndexOf(".")).toString();
     }
 
     /**
@@ -173,30 +494,30 @@ class MetadataVersion implements Comparable<MetadataVersion>, Serializable {
              */
             return -1;
         }
-        int result = compareIdentifierArrays(other.idents);
+        int result = compareIdentifierArrays(other);
         if (result == 0) {
             /*
              * A larger set of pre-release fields has a higher
              * precedence than a smaller set, if all of the
              * preceding identifiers are equal. (SemVer p.11)
              */
-            result = idents.length - other.idents.length;
+            result = Integer.compare(idents.length, other.idents.length);
         }
         return result;
     }
 
     /**
-     * Compares two arrays of identifiers.
+     * Compares the identifiers of two metadata versions.
      *
-     * @param otherIdents the identifiers of the other version
+     * @param other the other metadata version
      * @return integer result of comparison compatible with
      *         the {@code Comparable.compareTo} method
      */
-    private int compareIdentifierArrays(String[] otherIdents) {
+    private int compareIdentifierArrays(MetadataVersion other) {
         int result = 0;
-        int length = getLeastCommonArrayLength(idents, otherIdents);
+        int length = getLeastCommonArrayLength(idents, other.idents);
         for (int i = 0; i < length; i++) {
-            result = compareIdentifiers(idents[i], otherIdents[i]);
+            result = compareIdentifiers(other, i);
             if (result != 0) {
                 break;
             }
@@ -216,34 +537,30 @@ class MetadataVersion implements Comparable<MetadataVersion>, Serializable {
     }
 
     /**
-     * Compares two identifiers.
+     * Compares the identifiers at the same index.
      *
-     * @param ident1 the first identifier
-     * @param ident2 the second identifier
+     * Numeric identifiers are compared numerically, the other
+     * identifiers are compared in the ASCII sort order. Numeric
+     * identifiers always have lower precedence than the other
+     * identifiers. (SemVer p.11)
+     *
+     * @param other the other metadata version
+     * @param index the index of the identifiers
      * @return integer result of comparison compatible with
      *         the {@code Comparable.compareTo} method
      */
-    private int compareIdentifiers(String ident1, String ident2) {
-        if (isInt(ident1) && isInt(ident2)) {
-            return Integer.parseInt(ident1) - Integer.parseInt(ident2);
-        } else {
-            return ident1.compareTo(ident2);
+    private int compareIdentifiers(MetadataVersion other, int index) {
+        long value1 = values[index];
+        long value2 = other.values[index];
+        if (value1 == NON_NUMERIC && value2 == NON_NUMERIC) {
+            return idents[index].compareTo(other.idents[index]);
         }
-    }
-
-    /**
-     * Checks if the specified string is an integer.
-     *
-     * @param str the string to check
-     * @return {@code true} if the specified string is an integer
-     *         or {@code false} otherwise
-     */
-    private boolean isInt(String str) {
-        try {
-            Integer.parseInt(str);
-        } catch (NumberFormatException e) {
-            return false;
+        if (value1 == NON_NUMERIC || value2 == NON_NUMERIC) {
+            return value1 == NON_NUMERIC ? 1 : -1;
+        }
+        if (value1 == OVERSIZED || value2 == OVERSIZED) {
+            return compareDigits(idents[index], other.idents[index]);
         }
-        return true;
+        return Long.compare(value1, value2);
     }
 }
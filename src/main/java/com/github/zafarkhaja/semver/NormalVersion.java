@@ -24,7 +24,6 @@
 package com.github.zafarkhaja.semver;
 
 import java.io.Serializable;
-import java.util.Locale;
 
 /**
  * The {@code NormalVersion} class represents the version core.
@@ -244,6 +243,7 @@ class NormalVersion implements Comparable<NormalVersion>, Serializable {
      */
     @Override
     public String toString() {
-        return String.format(Locale.US, "%d.%d.%d", major, minor, patch);
+        return new StringBuilder(16).append(major).append('.')
+            .append(minor).append('.').append(patch).toString();
     }
 }
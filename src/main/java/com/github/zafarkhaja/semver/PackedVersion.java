@@ -0,0 +1,310 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2012-2016 Zafar Khaja <zafarkhaja@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.zafarkhaja.semver;
+
+/**
+ * Static utilities for the release versions packed into {@code long}s.
+ *
+ * A version without pre-release version and build metadata, whose
+ * numbers don't exceed {@value #MAX_NUMBER}, is packed into a
+ * non-negative {@code long} holding the major, minor and patch version
+ * numbers in three 21-bit fields, from the most significant to the least
+ * significant one. The signed order of the packed versions is the same
+ * as the natural order of the versions, so they can be compared, sorted
+ * and filtered as primitive values.
+ *
+ * The methods converting the versions into the packed form return
+ * {@link #NOT_PACKABLE} instead of throwing an exception, so that the
+ * callers can fall back to the {@code Version} objects.
+ *
+ * @author Zafar Khaja &lt;zafarkhaja@gmail.com&gt;
+ * @since 0.10.0
+ */
+public final class PackedVersion {
+
+    /**
+     * The value returned for the versions that cannot be packed.
+     */
+    public static final long NOT_PACKABLE = -1;
+
+    /**
+     * The maximum version number that can be packed.
+     */
+    public static final int MAX_NUMBER = (1 << 21) - 1;
+
+    /**
+     * The number of bits per version number.
+     */
+    private static final int BITS = 21;
+
+    /**
+     * Prevents the instantiation of this utility class.
+     */
+    private PackedVersion() {}
+
+    /**
+     * Packs the version numbers.
+     *
+     * @param major the major version number
+     * @param minor the minor version number
+     * @param patch the patch version number
+     * @return the packed version or {@code NOT_PACKABLE} if a number
+     *         is negative or greater than {@code MAX_NUMBER}
+     */
+    public static long pack(int major, int minor, int patch) {
+        if (!isPackable(major) || !isPackable(minor) || !isPackable(patch)) {
+            return NOT_PACKABLE;
+        }
+        return (long) major << 2 * BITS | (long) minor << BITS | patch;
+    }
+
+    /**
+     * Packs the version.
+     *
+     * @param version the version to pack
+     * @return the packed version or {@code NOT_PACKABLE} if the version
+     *         has a pre-release version or build metadata, or a number
+     *         greater than {@code MAX_NUMBER}
+     */
+    public static long pack(Version version) {
+        if (version.preRelease() != MetadataVersion.NULL
+            || version.build() != MetadataVersion.NULL
+        ) {
+            return NOT_PACKABLE;
+        }
+        return pack(
+            version.getMajorVersion(),
+            version.getMinorVersion(),
+            version.getPatchVersion()
+        );
+    }
+
+    /**
+     * Parses the version string into the packed form.
+     *
+     * The version core is parsed as by {@link Version#valueOf(String)},
+     * e.g. {@code "1.2"} is packed as {@code 1.2.0}. The method neither
+     * throws exceptions nor allocates objects.
+     *
+     * @param version the version string to parse
+     * @return the packed version or {@code NOT_PACKABLE} if the input is
+     *         {@code NULL}, invalid, has a pre-release version or build
+     *         metadata, or a number greater than {@code MAX_NUMBER}
+     */
+    public static long parse(CharSequence version) {
+        if (version == null) {
+            return NOT_PACKABLE;
+        }
+        long packed = 0;
+        int index = 0;
+        int length = version.length();
+        for (int field = 0; field < 3; field++) {
+            if (field > 0) {
+                if (index == length) {
+                    packed <<= BITS;
+                    continue;
+                }
+                if (version.charAt(index++) != '.') {
+                    return NOT_PACKABLE;
+                }
+            }
+            int from = index;
+            int number = 0;
+            while (index < length && isDigit(version.charAt(index))) {
+                number = number * 10 + version.charAt(index++) - '0';
+                if (number > MAX_NUMBER) {
+                    return NOT_PACKABLE;
+                }
+            }
+            if (index == from || version.charAt(from) == '0' && index - from > 1) {
+                return NOT_PACKABLE;
+            }
+            packed = packed << BITS | number;
+        }
+        return index == length ? packed : NOT_PACKABLE;
+    }
+
+    /**
+     * Unpacks the packed version.
+     *
+     * @param packed the packed version
+     * @return a new instance of the {@code Version} class
+     * @throws IllegalArgumentException if the value is not a packed version
+     */
+    public static Version toVersion(long packed) {
+        checkPacked(packed);
+        return new Version(major(packed), minor(packed), patch(packed));
+    }
+
+    /**
+     * Returns the string representation of the packed version.
+     *
+     * @param packed the packed version
+     * @return the string representation of the version
+     * @throws IllegalArgumentException if the value is not a packed version
+     */
+    public static String toString(long packed) {
+        checkPacked(packed);
+        return new StringBuilder(24).append(major(packed)).append('.')
+            .append(minor(packed)).append('.').append(patch(packed)).toString();
+    }
+
+    /**
+     * Checks if the value is a packed version.
+     *
+     * @param value the value to check
+     * @return {@code true} if the value is a packed version
+     *         or {@code false} otherwise
+     */
+    public static boolean isPacked(long value) {
+        return value >= 0 && value >>> 3 * BITS == 0;
+    }
+
+    /**
+     * Compares two packed versions.
+     *
+     * @param packed1 the first packed version
+     * @param packed2 the second packed version
+     * @return a negative integer, zero or a positive integer if the first
+     *         version is less than, equal to or greater than the second one
+     */
+    public static int compare(long packed1, long packed2) {
+        return Long.compare(packed1, packed2);
+    }
+
+    /**
+     * Returns the major version number of the packed version.
+     *
+     * @param packed the packed version
+     * @return the major version number
+     */
+    public static int major(long packed) {
+        return (int) (packed >>> 2 * BITS) & MAX_NUMBER;
+    }
+
+    /**
+     * Returns the minor version number of the packed version.
+     *
+     * @param packed the packed version
+     * @return the minor version number
+     */
+    public static int minor(long packed) {
+        return (int) (packed >>> BITS) & MAX_NUMBER;
+    }
+
+    /**
+     * Returns the patch version number of the packed version.
+     *
+     * @param packed the packed version
+     * @return the patch version number
+     */
+    public static int patch(long packed) {
+        return (int) packed & MAX_NUMBER;
+    }
+
+    /**
+     * Increments the major version number, resetting the other ones.
+     *
+     * @param packed the packed version
+     * @return the incremented packed version
+     * @throws IllegalArgumentException if the value is not a packed version
+     * @throws ArithmeticException if the major version number overflows
+     */
+    public static long incrementMajor(long packed) {
+        checkPacked(packed);
+        return pack(increment(major(packed)), 0, 0);
+    }
+
+    /**
+     * Increments the minor version number, resetting the patch version number.
+     *
+     * @param packed the packed version
+     * @return the incremented packed version
+     * @throws IllegalArgumentException if the value is not a packed version
+     * @throws ArithmeticException if the minor version number overflows
+     */
+    public static long incrementMinor(long packed) {
+        checkPacked(packed);
+        return pack(major(packed), increment(minor(packed)), 0);
+    }
+
+    /**
+     * Increments the patch version number.
+     *
+     * @param packed the packed version
+     * @return the incremented packed version
+     * @throws IllegalArgumentException if the value is not a packed version
+     * @throws ArithmeticException if the patch version number overflows
+     */
+    public static long incrementPatch(long packed) {
+        checkPacked(packed);
+        return pack(major(packed), minor(packed), increment(patch(packed)));
+    }
+
+    /**
+     * Increments a version number.
+     *
+     * @param number the version number
+     * @return the incremented version number
+     * @throws ArithmeticException if the version number overflows
+     */
+    private static int increment(int number) {
+        if (number == MAX_NUMBER) {
+            throw new ArithmeticException("Version number overflow");
+        }
+        return number + 1;
+    }
+
+    /**
+     * Checks if a version number can be packed.
+     *
+     * @param number the version number
+     * @return {@code true} if the number can be packed
+     */
+    private static boolean isPackable(int number) {
+        return number >= 0 && number <= MAX_NUMBER;
+    }
+
+    /**
+     * Checks if the character is an ASCII digit.
+     *
+     * @param chr the character to check
+     * @return {@code true} if the character is a digit
+     */
+    private static boolean isDigit(char chr) {
+        return chr >= '0' && chr <= '9';
+    }
+
+    /**
+     * Checks if the value is a packed version.
+     *
+     * @param value the value to check
+     * @throws IllegalArgumentException if the value is not a packed version
+     */
+    private static void checkPacked(long value) {
+        if (!isPacked(value)) {
+            throw new IllegalArgumentException("Not a packed version: " + value);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2012-2016 Zafar Khaja <zafarkhaja@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.zafarkhaja.semver;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+
+/**
+ * The serialized form of the {@code Version} class.
+ *
+ * A version is serialized as this proxy, which writes the version in the
+ * compact format of the {@code VersionCodec} class instead of the default
+ * graph of the version's fields.
+ *
+ * Each version is encoded on its own, so the dictionary of identifiers
+ * only applies within a single version. To share the identifiers across
+ * many versions, e.g. of a large collection, write them with a single
+ * {@code VersionCodec} instance directly.
+ *
+ * @author Zafar Khaja &lt;zafarkhaja@gmail.com&gt;
+ * @see VersionCodec
+ * @since 0.10.0
+ */
+final class SerializedVersion implements Externalizable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The serialized version.
+     */
+    private Version version;
+
+    /**
+     * Constructs an empty {@code SerializedVersion} instance
+     * for the deserialization.
+     */
+    public SerializedVersion() {}
+
+    /**
+     * Constructs a {@code SerializedVersion} instance for the version.
+     *
+     * @param version the version to serialize
+     */
+    SerializedVersion(Version version) {
+        this.version = version;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        new VersionCodec().write(version, out);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void readExternal(ObjectInput in) throws IOException {
+        version = new VersionCodec().read(in);
+    }
+
+    /**
+     * Replaces this proxy with the deserialized version.
+     *
+     * @return the deserialized version
+     */
+    private Object readResolve() {
+        return version;
+    }
+}
@@ -23,13 +23,21 @@
  */
 package com.github.zafarkhaja.semver;
 
+import com.github.zafarkhaja.semver.expr.ExpressionCache;
 import com.github.zafarkhaja.semver.expr.ExpressionParser;
 import com.github.zafarkhaja.semver.compiling.LexerException;
 import com.github.zafarkhaja.semver.compiling.UnexpectedTokenException;
 import com.github.zafarkhaja.semver.expr.MavenParser;
 
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
 import java.util.Comparator;
+import java.util.Optional;
 import java.util.function.Predicate;
 
 /**
@@ -43,12 +51,22 @@ import java.util.function.Predicate;
  */
 public class Version implements Comparable<Version>, Serializable {
 
-    private static final long serialVersionUID = -2008891377046871654L;
+    private static final long serialVersionUID = 7218371284137485367L;
 
     /**
-     * The normal version.
+     * The major version number.
      */
-    private final NormalVersion normal;
+    private final int major;
+
+    /**
+     * The minor version number.
+     */
+    private final int minor;
+
+    /**
+     * The patch version number.
+     */
+    private final int patch;
 
     /**
      * The pre-release version.
@@ -60,6 +78,36 @@ public class Version implements Comparable<Version>, Serializable {
      */
     private final MetadataVersion build;
 
+    /**
+     * The cached string representation, computed on first use.
+     */
+    private transient String string;
+
+    /**
+     * The cached hash code, computed on first use.
+     */
+    private transient int hash;
+
+    /**
+     * The cached fingerprint, computed on first use.
+     */
+    private transient long fingerprint;
+
+    /**
+     * The cached build-aware key, created on first use.
+     */
+    private transient BuildAwareKey buildAwareKey;
+
+    /**
+     * The 64-bit FNV-1a offset basis.
+     */
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+    /**
+     * The 64-bit FNV-1a prime.
+     */
+    private static final long FNV_PRIME = 0x100000001b3L;
+
     /**
      * A separator that separates the pre-release
      * version from the normal version.
@@ -74,23 +122,43 @@ public class Version implements Comparable<Version>, Serializable {
 
     /**
      * A mutable builder for the immutable {@code Version} class.
+     *
+     * Each part of the version is validated when it is set, so that
+     * the {@code build} method constructs the version directly, without
+     * assembling and reparsing the version string. The string setters
+     * therefore throw on invalid input themselves, not {@code build}.
      */
     public static class Builder {
 
         /**
-         * The normal version string.
+         * The major version number.
+         */
+        private int major;
+
+        /**
+         * The minor version number.
+         */
+        private int minor;
+
+        /**
+         * The patch version number.
+         */
+        private int patch;
+
+        /**
+         * The pre-release version.
          */
-        private String normal;
+        private MetadataVersion preRelease = MetadataVersion.NULL;
 
         /**
-         * The pre-release version string.
+         * The build metadata.
          */
-        private String preRelease;
+        private MetadataVersion build = MetadataVersion.NULL;
 
         /**
-         * The build metadata string.
+         * Whether the normal version, or any of its numbers, has been set.
          */
-        private String build;
+        private boolean hasNormal;
 
         /**
          * Constructs a {@code Builder} instance.
@@ -104,9 +172,11 @@ public class Version implements Comparable<Version>, Serializable {
          * string representation of the normal version.
          *
          * @param normal the string representation of the normal version
+         * @throws IllegalArgumentException if the input string is {@code NULL} or empty
+         * @throws ParseException when invalid version string is provided
          */
         public Builder(String normal) {
-            this.normal = normal;
+            setNormalVersion(normal);
         }
 
         /**
@@ -114,53 +184,133 @@ public class Version implements Comparable<Version>, Serializable {
          *
          * @param normal the string representation of the normal version
          * @return this builder instance
+         * @throws IllegalArgumentException if the input string is {@code NULL} or empty
+         * @throws ParseException when invalid version string is provided
          */
         public Builder setNormalVersion(String normal) {
-            this.normal = normal;
+            NormalVersion parsed = VersionParser.parseVersionCore(normal, true);
+            this.major = parsed.getMajor();
+            this.minor = parsed.getMinor();
+            this.patch = parsed.getPatch();
+            this.hasNormal = true;
             return this;
         }
 
         /**
          * Sets the pre-release version.
          *
-         * @param preRelease the string representation of the pre-release version
+         * @param preRelease the string representation of the pre-release
+         *                   version, {@code NULL} or empty to unset it
          * @return this builder instance
+         * @throws ParseException when invalid version string is provided
          */
         public Builder setPreReleaseVersion(String preRelease) {
-            this.preRelease = preRelease;
+            this.preRelease = isFilled(preRelease)
+                ? VersionParser.parsePreRelease(preRelease, true)
+                : MetadataVersion.NULL;
             return this;
         }
 
         /**
          * Sets the build metadata.
          *
-         * @param build the string representation of the build metadata
+         * @param build the string representation of the build
+         *              metadata, {@code NULL} or empty to unset it
          * @return this builder instance
+         * @throws ParseException when invalid version string is provided
          */
         public Builder setBuildMetadata(String build) {
-            this.build = build;
+            this.build = isFilled(build)
+                ? VersionParser.parseBuild(build, true)
+                : MetadataVersion.NULL;
+            return this;
+        }
+
+        /**
+         * Sets the major version number.
+         *
+         * @param major the major version number
+         * @return this builder instance
+         * @throws IllegalArgumentException if the number is negative
+         * @since 0.10.0
+         */
+        public Builder major(int major) {
+            this.major = checkNumber(major);
+            this.hasNormal = true;
+            return this;
+        }
+
+        /**
+         * Sets the minor version number.
+         *
+         * @param minor the minor version number
+         * @return this builder instance
+         * @throws IllegalArgumentException if the number is negative
+         * @since 0.10.0
+         */
+        public Builder minor(int minor) {
+            this.minor = checkNumber(minor);
+            this.hasNormal = true;
+            return this;
+        }
+
+        /**
+         * Sets the patch version number.
+         *
+         * @param patch the patch version number
+         * @return this builder instance
+         * @throws IllegalArgumentException if the number is negative
+         * @since 0.10.0
+         */
+        public Builder patch(int patch) {
+            this.patch = checkNumber(patch);
+            this.hasNormal = true;
+            return this;
+        }
+
+        /**
+         * Sets the pre-release version identifiers.
+         *
+         * @param identifiers the pre-release identifiers, none to unset
+         *                    the pre-release version
+         * @return this builder instance
+         * @throws IllegalArgumentException if an identifier is invalid
+         * @since 0.10.0
+         */
+        public Builder preRelease(String... identifiers) {
+            this.preRelease = toMetadata(identifiers, true);
+            return this;
+        }
+
+        /**
+         * Sets the build metadata identifiers.
+         *
+         * @param identifiers the build identifiers, none to unset
+         *                    the build metadata
+         * @return this builder instance
+         * @throws IllegalArgumentException if an identifier is invalid
+         * @since 0.10.0
+         */
+        public Builder buildMetadata(String... identifiers) {
+            this.build = toMetadata(identifiers, false);
             return this;
         }
 
         /**
          * Builds a {@code Version} object.
          *
+         * The numbers which have not been set default to zero,
+         * but at least the normal version or one of its numbers
+         * must be set.
+         *
          * @return a newly built {@code Version} instance
-         * @throws ParseException when invalid version string is provided
-         * @throws UnexpectedCharacterException is a special case of {@code ParseException}
+         * @throws IllegalArgumentException if the normal version has not been set
          */
         public Version build() {
-            StringBuilder sb = new StringBuilder();
-            if (isFilled(normal)) {
-                sb.append(normal);
+            if (!hasNormal) {
+                throw new IllegalArgumentException("Normal version is not set");
             }
-            if (isFilled(preRelease)) {
-                sb.append(PRE_RELEASE_PREFIX).append(preRelease);
-            }
-            if (isFilled(build)) {
-                sb.append(BUILD_PREFIX).append(build);
-            }
-            return VersionParser.parseValidSemVer(sb.toString());
+            return new Version(major, minor, patch, preRelease, build);
         }
 
         /**
@@ -172,6 +322,295 @@ public class Version implements Comparable<Version>, Serializable {
         private boolean isFilled(String str) {
             return str != null && !str.isEmpty();
         }
+
+        /**
+         * Checks if a version number is non-negative.
+         *
+         * @param number the version number to check
+         * @return the version number
+         * @throws IllegalArgumentException if the number is negative
+         */
+        private static int checkNumber(int number) {
+            if (number < 0) {
+                throw new IllegalArgumentException(
+                    "Major, minor and patch versions MUST be non-negative integers."
+                );
+            }
+            return number;
+        }
+
+        /**
+         * Creates a metadata version from the validated identifiers.
+         *
+         * @param identifiers the identifiers
+         * @param preRelease whether the identifiers are pre-release ones
+         * @return the metadata version or {@code NULL} if there are no identifiers
+         * @throws IllegalArgumentException if an identifier is invalid
+         */
+        private static MetadataVersion toMetadata(String[] identifiers, boolean preRelease) {
+            if (identifiers == null || identifiers.length == 0) {
+                return MetadataVersion.NULL;
+            }
+            String[] idents = identifiers.clone();
+            for (String ident : idents) {
+                if (!VersionParser.isValidIdentifier(ident, preRelease)) {
+                    throw new IllegalArgumentException(
+                        "Invalid " + (preRelease ? "pre-release" : "build") + " identifier: " + ident
+                    );
+                }
+            }
+            return new MetadataVersion(idents);
+        }
+    }
+
+    /**
+     * A key that distinguishes versions by their build metadata.
+     *
+     * Two keys are equal if their versions are equal according to
+     * {@link #BUILD_AWARE_ORDER}, the hash code of a key is derived from
+     * the {@linkplain Version#fingerprint() fingerprint} of its version.
+     *
+     * @see Version#buildAwareKey()
+     * @since 0.10.0
+     */
+    public static final class BuildAwareKey {
+
+        /**
+         * The version of this key.
+         */
+        private final Version version;
+
+        /**
+         * Constructs a {@code BuildAwareKey} instance for the version.
+         *
+         * @param version the version of this key
+         */
+        private BuildAwareKey(Version version) {
+            this.version = version;
+        }
+
+        /**
+         * Returns the version of this key.
+         *
+         * @return the version of this key
+         */
+        public Version version() {
+            return version;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof BuildAwareKey)) {
+                return false;
+            }
+            Version that = ((BuildAwareKey) other).version;
+            return version.fingerprint() == that.fingerprint()
+                && BUILD_AWARE_ORDER.compare(version, that) == 0;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int hashCode() {
+            return Long.hashCode(version.fingerprint());
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String toString() {
+            return version.toString();
+        }
+    }
+
+    /**
+     * A comparator that orders version strings by precedence without
+     * parsing them into {@code Version} objects.
+     *
+     * @see #compareStrings(CharSequence, CharSequence)
+     * @since 0.10.0
+     */
+    public static final Comparator<CharSequence> STRING_ORDER = new StringOrder();
+
+    /**
+     * A comparator of version strings.
+     */
+    private static class StringOrder implements Comparator<CharSequence> {
+
+        /**
+         * Compares two version strings by precedence in a single pass.
+         *
+         * The version numbers are compared numerically, a version without
+         * pre-release version has a higher precedence than the one with it,
+         * the pre-release identifiers are compared as by {@code compareTo}
+         * and the build metadata is ignored.
+         *
+         * The result is undefined for invalid version strings.
+         *
+         * @return {@inheritDoc}
+         */
+        @Override
+        public int compare(CharSequence v1, CharSequence v2) {
+            int i1 = 0;
+            int i2 = 0;
+            int end1 = v1.length();
+            int end2 = v2.length();
+            for (int field = 0; field < 3; field++) {
+                if (field > 0) {
+                    i1 = skipDot(v1, i1, end1);
+                    i2 = skipDot(v2, i2, end2);
+                }
+                int from1 = i1;
+                int from2 = i2;
+                i1 = skipDigits(v1, i1, end1);
+                i2 = skipDigits(v2, i2, end2);
+                int result = compareDigits(v1, from1, i1, v2, from2, i2);
+                if (result != 0) {
+                    return result;
+                }
+            }
+            boolean pre1 = i1 < end1 && v1.charAt(i1) == '-';
+            boolean pre2 = i2 < end2 && v2.charAt(i2) == '-';
+            if (!pre1 || !pre2) {
+                /*
+                 * Pre-release versions have a lower precedence than
+                 * the associated normal version. (SemVer p.9)
+                 */
+                return Boolean.compare(!pre1, !pre2);
+            }
+            end1 = indexOfBuild(v1, ++i1, end1);
+            end2 = indexOfBuild(v2, ++i2, end2);
+            while (i1 < end1 && i2 < end2) {
+                int to1 = indexOfDot(v1, i1, end1);
+                int to2 = indexOfDot(v2, i2, end2);
+                int result = compareIdentifiers(v1, i1, to1, v2, i2, to2);
+                if (result != 0) {
+                    return result;
+                }
+                i1 = to1 + 1;
+                i2 = to2 + 1;
+            }
+            /*
+             * A larger set of pre-release fields has a higher
+             * precedence than a smaller set, if all of the
+             * preceding identifiers are equal. (SemVer p.11)
+             */
+            return Boolean.compare(i1 < end1, i2 < end2);
+        }
+
+        /**
+         * Compares two pre-release identifiers.
+         *
+         * @return integer result of comparison compatible with
+         *         the {@code Comparable.compareTo} method
+         */
+        private static int compareIdentifiers(
+            CharSequence v1, int from1, int to1,
+            CharSequence v2, int from2, int to2
+        ) {
+            boolean numeric1 = skipDigits(v1, from1, to1) == to1;
+            boolean numeric2 = skipDigits(v2, from2, to2) == to2;
+            if (numeric1 && numeric2) {
+                return compareDigits(v1, from1, to1, v2, from2, to2);
+            }
+            if (numeric1 || numeric2) {
+                return numeric1 ? -1 : 1;
+            }
+            int length1 = to1 - from1;
+            int length2 = to2 - from2;
+            for (int i = 0, n = Math.min(length1, length2); i < n; i++) {
+                int result = v1.charAt(from1 + i) - v2.charAt(from2 + i);
+                if (result != 0) {
+                    return result;
+                }
+            }
+            return length1 - length2;
+        }
+
+        /**
+         * Compares two digit sequences numerically, an empty sequence
+         * is treated as zero.
+         *
+         * @return integer result of comparison compatible with
+         *         the {@code Comparable.compareTo} method
+         */
+        private static int compareDigits(
+            CharSequence v1, int from1, int to1,
+            CharSequence v2, int from2, int to2
+        ) {
+            boolean zero1 = isZero(v1, from1, to1);
+            boolean zero2 = isZero(v2, from2, to2);
+            if (zero1 || zero2) {
+                return Boolean.compare(!zero1, !zero2);
+            }
+            int result = Integer.compare(to1 - from1, to2 - from2);
+            for (int i = 0; result == 0 && from1 + i < to1; i++) {
+                result = Character.compare(v1.charAt(from1 + i), v2.charAt(from2 + i));
+            }
+            return result;
+        }
+
+        /**
+         * Checks if the digit sequence is zero or empty.
+         *
+         * @return {@code true} if the sequence is zero or empty
+         */
+        private static boolean isZero(CharSequence str, int from, int to) {
+            return from == to || to - from == 1 && str.charAt(from) == '0';
+        }
+
+        /**
+         * Skips the digits starting at the index.
+         *
+         * @return the index of the first non-digit character
+         */
+        private static int skipDigits(CharSequence str, int index, int end) {
+            while (index < end && str.charAt(index) >= '0' && str.charAt(index) <= '9') {
+                index++;
+            }
+            return index;
+        }
+
+        /**
+         * Skips the dot at the index, if any.
+         *
+         * @return the index after the dot
+         */
+        private static int skipDot(CharSequence str, int index, int end) {
+            return index < end && str.charAt(index) == '.' ? index + 1 : index;
+        }
+
+        /**
+         * Finds the dot ending the identifier at the index.
+         *
+         * @return the index of the dot or the end of the range
+         */
+        private static int indexOfDot(CharSequence str, int index, int end) {
+            while (index < end && str.charAt(index) != '.') {
+                index++;
+            }
+            return index;
+        }
+
+        /**
+         * Finds the start of the build metadata.
+         *
+         * @return the index of the plus sign or the end of the range
+         */
+        private static int indexOfBuild(CharSequence str, int index, int end) {
+            while (index < end && str.charAt(index) != '+') {
+                index++;
+            }
+            return index;
+        }
     }
 
     /**
@@ -247,7 +686,56 @@ public class Version implements Comparable<Version>, Serializable {
      * @param build the build metadata
      */
     Version(NormalVersion normal, MetadataVersion preRelease, MetadataVersion build) {
-        this.normal = normal;
+        this(
+            normal.getMajor(),
+            normal.getMinor(),
+            normal.getPatch(),
+            preRelease,
+            build
+        );
+    }
+
+    /**
+     * Constructs a {@code Version} instance with the version numbers.
+     *
+     * @param major the major version number
+     * @param minor the minor version number
+     * @param patch the patch version number
+     * @throws IllegalArgumentException if a negative integer is passed
+     */
+    Version(int major, int minor, int patch) {
+        this(major, minor, patch, MetadataVersion.NULL, MetadataVersion.NULL);
+    }
+
+    /**
+     * Constructs a {@code Version} instance with the version numbers,
+     * the pre-release version and the build metadata.
+     *
+     * The numbers are held by the version itself, so a version without
+     * the pre-release version and the build metadata is a single object.
+     *
+     * @param major the major version number
+     * @param minor the minor version number
+     * @param patch the patch version number
+     * @param preRelease the pre-release version
+     * @param build the build metadata
+     * @throws IllegalArgumentException if a negative integer is passed
+     */
+    Version(
+        int major,
+        int minor,
+        int patch,
+        MetadataVersion preRelease,
+        MetadataVersion build
+    ) {
+        if (major < 0 || minor < 0 || patch < 0) {
+            throw new IllegalArgumentException(
+                "Major, minor and patch versions MUST be non-negative integers."
+            );
+        }
+        this.major = major;
+        this.minor = minor;
+        this.patch = patch;
         this.preRelease = preRelease;
         this.build = build;
     }
@@ -256,13 +744,106 @@ public class Version implements Comparable<Version>, Serializable {
      * Creates a new instance of {@code Version} as a
      * result of parsing the specified version string.
      *
+     * If a global {@link VersionCache} is installed, the version
+     * is looked up in the cache and may be a shared instance.
+     *
      * @param version the version string to parse
      * @return a new instance of the {@code Version} class
      * @throws IllegalArgumentException if the input string is {@code NULL} or empty
      * @throws ParseException when invalid version string is provided
      * @throws UnexpectedCharacterException is a special case of {@code ParseException}
+     * @see VersionCache#setGlobal(VersionCache)
      */
     public static Version valueOf(String version) {
+        VersionCache cache = VersionCache.global();
+        if (cache != null) {
+            return cache.valueOf(version);
+        }
+        return VersionParser.parseValidSemVer(version);
+    }
+
+    /**
+     * Creates a new instance of {@code Version} as a result of
+     * parsing a range of the specified character sequence.
+     *
+     * The range is parsed in place without copying it into a string,
+     * the positions of unexpected characters are relative to {@code start}.
+     *
+     * @param version the character sequence containing the version
+     * @param start the index of the first character of the version
+     * @param end the index after the last character of the version
+     * @return a new instance of the {@code Version} class
+     * @throws IllegalArgumentException if the input is {@code NULL} or the range is empty
+     * @throws IndexOutOfBoundsException if the range is out of the input bounds
+     * @throws ParseException when invalid version string is provided
+     * @throws UnexpectedCharacterException is a special case of {@code ParseException}
+     * @since 0.10.0
+     */
+    public static Version valueOf(CharSequence version, int start, int end) {
+        return VersionParser.parseValidSemVer(version, start, end);
+    }
+
+    /**
+     * Creates a new instance of {@code Version} as a result of
+     * parsing a range of the specified character array.
+     *
+     * The array is parsed in place, the positions of unexpected
+     * characters are relative to {@code offset}.
+     *
+     * @param version the character array containing the version
+     * @param offset the index of the first character of the version
+     * @param length the number of characters of the version
+     * @return a new instance of the {@code Version} class
+     * @throws IllegalArgumentException if the input is {@code NULL} or the range is empty
+     * @throws IndexOutOfBoundsException if the range is out of the array bounds
+     * @throws ParseException when invalid version string is provided
+     * @throws UnexpectedCharacterException is a special case of {@code ParseException}
+     * @since 0.10.0
+     */
+    public static Version valueOf(char[] version, int offset, int length) {
+        return VersionParser.parseValidSemVer(version, offset, length);
+    }
+
+    /**
+     * Creates a new instance of {@code Version} as a result of
+     * parsing a range of the specified byte array.
+     *
+     * The bytes are read as ASCII characters without charset decoding,
+     * so any byte outside of the ASCII range, including the bytes of
+     * multi-byte UTF-8 sequences, is an unexpected character. The
+     * positions of unexpected characters are relative to {@code offset}.
+     *
+     * @param version the byte array containing the version
+     * @param offset the index of the first byte of the version
+     * @param length the number of bytes of the version
+     * @return a new instance of the {@code Version} class
+     * @throws IllegalArgumentException if the input is {@code NULL} or the range is empty
+     * @throws IndexOutOfBoundsException if the range is out of the array bounds
+     * @throws ParseException when invalid version string is provided
+     * @throws UnexpectedCharacterException is a special case of {@code ParseException}
+     * @since 0.10.0
+     */
+    public static Version valueOf(byte[] version, int offset, int length) {
+        return VersionParser.parseValidSemVer(version, offset, length);
+    }
+
+    /**
+     * Creates a new instance of {@code Version} as a result of
+     * parsing the remaining bytes of the specified buffer.
+     *
+     * The bytes between the position and the limit of the buffer are read
+     * as ASCII characters without charset decoding. The position of the
+     * buffer is not modified, the positions of unexpected characters are
+     * relative to it.
+     *
+     * @param version the buffer containing the version
+     * @return a new instance of the {@code Version} class
+     * @throws IllegalArgumentException if the input is {@code NULL} or has no remaining bytes
+     * @throws ParseException when invalid version string is provided
+     * @throws UnexpectedCharacterException is a special case of {@code ParseException}
+     * @since 0.10.0
+     */
+    public static Version valueOf(ByteBuffer version) {
         return VersionParser.parseValidSemVer(version);
     }
 
@@ -276,7 +857,7 @@ public class Version implements Comparable<Version>, Serializable {
      * @since 0.7.0
      */
     public static Version forIntegers(int major) {
-        return new Version(new NormalVersion(major, 0, 0));
+        return new Version(major, 0, 0);
     }
 
     /**
@@ -290,7 +871,7 @@ public class Version implements Comparable<Version>, Serializable {
      * @since 0.7.0
      */
     public static Version forIntegers(int major, int minor) {
-        return new Version(new NormalVersion(major, minor, 0));
+        return new Version(major, minor, 0);
     }
 
     /**
@@ -305,12 +886,61 @@ public class Version implements Comparable<Version>, Serializable {
      * @since 0.7.0
      */
     public static Version forIntegers(int major, int minor, int patch) {
-        return new Version(new NormalVersion(major, minor, patch));
+        return new Version(major, minor, patch);
+    }
+
+    /**
+     * Creates a new instance of {@code Version} for the specified
+     * version numbers, pre-release and build identifiers.
+     *
+     * The identifiers are validated one by one, without being
+     * joined into a string and parsed again.
+     *
+     * @param major the major version number
+     * @param minor the minor version number
+     * @param patch the patch version number
+     * @param preRelease the pre-release identifiers or {@code NULL} if none
+     * @param build the build identifiers or {@code NULL} if none
+     * @return a new instance of the {@code Version} class
+     * @throws IllegalArgumentException if a negative integer
+     *         or an invalid identifier is passed
+     * @since 0.10.0
+     */
+    public static Version forIntegers(
+        int major,
+        int minor,
+        int patch,
+        String[] preRelease,
+        String[] build
+    ) {
+        return new Version(
+            major,
+            minor,
+            patch,
+            Builder.toMetadata(preRelease, true),
+            Builder.toMetadata(build, false)
+        );
+    }
+
+    /**
+     * Returns a canonical instance of this version.
+     *
+     * The versions that are equal and have the same build metadata
+     * are represented by the same instance in the global
+     * {@link VersionPool}, which retains them weakly by default.
+     *
+     * @return the canonical instance of this version
+     * @see VersionPool#setGlobal(VersionPool)
+     * @since 0.10.0
+     */
+    public Version intern() {
+        return VersionPool.global().intern(this);
     }
 
     /**
      * Checks if this version satisfies the specified Expression string.
      * First checks for JSemVer Expression, if that fails it checks for a Maven-style version range.
+     * The compiled expressions are kept in the global {@link ExpressionCache}.
      *
      * This method is a part of the Expressions API.
      *
@@ -323,17 +953,11 @@ public class Version implements Comparable<Version>, Serializable {
      * @since 0.10.0
      */
     public boolean satisfies(String expr) {
-        Predicate<Version> res;
-        try {
-            res = ExpressionParser.newInstance().parse(expr);
-        } catch (ParseException e) {
-            try {
-                res = new MavenParser().parse(expr);
-            } catch (ParseException e2) {
-                res = version -> false;
-            }
+        ExpressionCache cache = ExpressionCache.global();
+        if (cache != null) {
+            return satisfies(cache.get(expr));
         }
-        return satisfies(res);
+        return satisfies(ExpressionCache.compile(expr));
     }
 
     /**
@@ -395,8 +1019,8 @@ public class Version implements Comparable<Version>, Serializable {
      */
     public Version withMajor(int major, boolean preserveMeta) {
         if(preserveMeta)
-            return new Version(normal.withMajor(major), preRelease, build);
-        return new Version(normal.withMajor(major));
+            return new Version(major, minor, patch, preRelease, build);
+        return new Version(major, minor, patch);
     }
     /**
      * Re-sets the minor version number.
@@ -408,8 +1032,8 @@ public class Version implements Comparable<Version>, Serializable {
      */
     public Version withMinor(int minor, boolean preserveMeta) {
         if(preserveMeta)
-            return new Version(normal.withMinor(minor), preRelease, build);
-        return new Version(normal.withMinor(minor));
+            return new Version(major, minor, patch, preRelease, build);
+        return new Version(major, minor, patch);
     }
     /**
      * Re-sets the patch version number.
@@ -421,17 +1045,73 @@ public class Version implements Comparable<Version>, Serializable {
      */
     public Version withPatch(int patch, boolean preserveMeta) {
         if(preserveMeta)
-            return new Version(normal.withPatch(patch), preRelease, build);
-        return new Version(normal.withPatch(patch));
+            return new Version(major, minor, patch, preRelease, build);
+        return new Version(major, minor, patch);
+    }
+
+    /**
+     * Creates a new instance of {@code Version} as a result
+     * of parsing the specified version string if it is valid.
+     *
+     * Unlike {@link #valueOf(String)} this method doesn't throw
+     * exceptions, so it is suitable for inputs that are likely
+     * to be invalid.
+     *
+     * @param version the version string to parse
+     * @return an {@code Optional} with the parsed version or an empty
+     *         {@code Optional} if the version string is {@code NULL},
+     *         empty or invalid
+     * @since 0.10.0
+     */
+    public static Optional<Version> tryParse(String version) {
+        return Optional.ofNullable(VersionParser.tryParseValidSemVer(version));
+    }
+
+    /**
+     * Compares two version strings by precedence without parsing them.
+     *
+     * The result agrees with {@link #compareTo(Version)} for valid
+     * version strings and is undefined for invalid ones. The comparison
+     * walks both strings in a single pass and allocates no objects.
+     *
+     * @param v1 the first version string
+     * @param v2 the second version string
+     * @return a negative integer, zero or a positive integer if the first
+     *         version is less than, equal to or greater than the second one
+     * @see #STRING_ORDER
+     * @since 0.10.0
+     */
+    public static int compareStrings(CharSequence v1, CharSequence v2) {
+        return STRING_ORDER.compare(v1, v2);
     }
 
+    /**
+     * Creates a lazily parsed version for the specified version string.
+     *
+     * The version string is validated immediately, but the version
+     * object is only built when its components are first needed.
+     *
+     * @param version the version string
+     * @return a new instance of the {@code LazyVersion} class
+     * @throws IllegalArgumentException if the input is {@code NULL} or empty
+     * @throws ParseException when the input is not a valid version
+     * @since 0.10.0
+     */
+    public static LazyVersion lazy(CharSequence version) {
+        return new LazyVersion(version);
+    }
+
+    /**
+     * Checks if the specified string is a valid version string.
+     *
+     * The check neither throws nor creates any objects internally.
+     *
+     * @param toCheck the string to check
+     * @return {@code true} if the string is a valid version string
+     *         or {@code false} if it is {@code NULL}, empty or invalid
+     */
     public static boolean isValid(String toCheck) {
-      try {
-        new VersionParser(toCheck).parse(null);
-        return true;
-      } catch(ParseException e) {
-        return false;
-      }
+        return VersionParser.isValidSemVer(toCheck);
     }
 
     /**
@@ -440,10 +1120,10 @@ public class Version implements Comparable<Version>, Serializable {
      * @return a new instance of the {@code Version} class
      */
     public Version incrementMajorVersion() {
-        if (preRelease == MetadataVersion.NULL || normal.getPatch() != 0 || normal.getMinor() != 0) {
-            return new Version(normal.incrementMajor());
+        if (preRelease == MetadataVersion.NULL || patch != 0 || minor != 0) {
+            return new Version(major + 1, 0, 0);
         }
-        return new Version(normal);
+        return new Version(major, minor, patch);
     }
 
     public Version incrementPreMajorVersion() {
@@ -461,8 +1141,11 @@ public class Version implements Comparable<Version>, Serializable {
      */
     public Version incrementMajorVersion(String preRelease) {
         return new Version(
-            normal.incrementMajor(),
-            VersionParser.parsePreRelease(preRelease)
+            major + 1,
+            0,
+            0,
+            VersionParser.parsePreRelease(preRelease),
+            MetadataVersion.NULL
         );
     }
 
@@ -472,10 +1155,10 @@ public class Version implements Comparable<Version>, Serializable {
      * @return a new instance of the {@code Version} class
      */
     public Version incrementMinorVersion() {
-        if (preRelease == MetadataVersion.NULL || normal.getPatch() != 0) {
-            return new Version(normal.incrementMinor());
+        if (preRelease == MetadataVersion.NULL || patch != 0) {
+            return new Version(major, minor + 1, 0);
         }
-        return new Version(normal);
+        return new Version(major, minor, patch);
     }
 
     /**
@@ -498,8 +1181,11 @@ public class Version implements Comparable<Version>, Serializable {
      */
     public Version incrementMinorVersion(String preRelease) {
         return new Version(
-            normal.incrementMinor(),
-            VersionParser.parsePreRelease(preRelease)
+            major,
+            minor + 1,
+            0,
+            VersionParser.parsePreRelease(preRelease),
+            MetadataVersion.NULL
         );
     }
 
@@ -510,8 +1196,8 @@ public class Version implements Comparable<Version>, Serializable {
      */
     public Version incrementPatchVersion() {
         if (preRelease == MetadataVersion.NULL)
-            return new Version(normal.incrementPatch());
-        return new Version(normal);
+            return new Version(major, minor, patch + 1);
+        return new Version(major, minor, patch);
     }
 
     public Version incrementPrePatchVersion() {
@@ -529,8 +1215,11 @@ public class Version implements Comparable<Version>, Serializable {
      */
     public Version incrementPatchVersion(String preRelease) {
         return new Version(
-            normal.incrementPatch(),
-            VersionParser.parsePreRelease(preRelease)
+            major,
+            minor,
+            patch + 1,
+            VersionParser.parsePreRelease(preRelease),
+            MetadataVersion.NULL
         );
     }
 
@@ -540,7 +1229,7 @@ public class Version implements Comparable<Version>, Serializable {
      * @return a new instance of the {@code Version} class
      */
     public Version incrementPreReleaseVersion() {
-        return new Version(normal, preRelease.increment());
+        return new Version(major, minor, patch, preRelease.increment(), MetadataVersion.NULL);
     }
 
     /**
@@ -549,7 +1238,7 @@ public class Version implements Comparable<Version>, Serializable {
      * @return a new instance of the {@code Version} class
      */
     public Version incrementBuildMetadata() {
-        return new Version(normal, preRelease, build.increment());
+        return new Version(major, minor, patch, preRelease, build.increment());
     }
 
     /**
@@ -562,7 +1251,13 @@ public class Version implements Comparable<Version>, Serializable {
      * @throws UnexpectedCharacterException is a special case of {@code ParseException}
      */
     public Version setPreReleaseVersion(String preRelease) {
-        return new Version(normal, VersionParser.parsePreRelease(preRelease));
+        return new Version(
+            major,
+            minor,
+            patch,
+            VersionParser.parsePreRelease(preRelease),
+            MetadataVersion.NULL
+        );
     }
 
     /**
@@ -575,7 +1270,13 @@ public class Version implements Comparable<Version>, Serializable {
      * @throws UnexpectedCharacterException is a special case of {@code ParseException}
      */
     public Version setBuildMetadata(String build) {
-        return new Version(normal, preRelease, VersionParser.parseBuild(build));
+        return new Version(
+            major,
+            minor,
+            patch,
+            preRelease,
+            VersionParser.parseBuild(build)
+        );
     }
 
     /**
@@ -584,7 +1285,7 @@ public class Version implements Comparable<Version>, Serializable {
      * @return the major version number
      */
     public int getMajorVersion() {
-        return normal.getMajor();
+        return major;
     }
 
     /**
@@ -593,7 +1294,7 @@ public class Version implements Comparable<Version>, Serializable {
      * @return the minor version number
      */
     public int getMinorVersion() {
-        return normal.getMinor();
+        return minor;
     }
 
     /**
@@ -602,7 +1303,7 @@ public class Version implements Comparable<Version>, Serializable {
      * @return the patch version number
      */
     public int getPatchVersion() {
-        return normal.getPatch();
+        return patch;
     }
 
     /**
@@ -611,7 +1312,54 @@ public class Version implements Comparable<Version>, Serializable {
      * @return the string representation of the normal version
      */
     public String getNormalVersion() {
-        return normal.toString();
+        return appendNormalVersion(new StringBuilder(16)).toString();
+    }
+
+    /**
+     * Appends the normal version to the string builder.
+     *
+     * @param sb the string builder to append to
+     * @return the string builder
+     */
+    private StringBuilder appendNormalVersion(StringBuilder sb) {
+        return sb.append(major).append('.').append(minor).append('.').append(patch);
+    }
+
+    /**
+     * Replaces this version with its compact serialized form.
+     *
+     * @return the serialized form of this version
+     */
+    private Object writeReplace() {
+        return new SerializedVersion(this);
+    }
+
+    /**
+     * Prevents the deserialization of versions bypassing the serialized form.
+     *
+     * @param in the object input stream
+     * @throws InvalidObjectException always
+     */
+    private void readObject(ObjectInputStream in) throws InvalidObjectException {
+        throw new InvalidObjectException("Serialized form is required");
+    }
+
+    /**
+     * Returns the pre-release version.
+     *
+     * @return the pre-release version or {@code MetadataVersion.NULL}
+     */
+    MetadataVersion preRelease() {
+        return preRelease;
+    }
+
+    /**
+     * Returns the build metadata.
+     *
+     * @return the build metadata or {@code MetadataVersion.NULL}
+     */
+    MetadataVersion build() {
+        return build;
     }
 
     /**
@@ -739,25 +1487,377 @@ public class Version implements Comparable<Version>, Serializable {
      */
     @Override
     public int hashCode() {
-        int hash = 5;
-        hash = 97 * hash + normal.hashCode();
-        hash = 97 * hash + preRelease.hashCode();
+        int result = hash;
+        if (result == 0) {
+            result = hashCode(major, minor, patch, preRelease.hashCode());
+            hash = result;
+        }
+        return result;
+    }
+
+    /**
+     * Computes the hash code of a version from its precedence components.
+     *
+     * @param major the major version number
+     * @param minor the minor version number
+     * @param patch the patch version number
+     * @param preReleaseHash the hash code of the pre-release version
+     * @return the hash code of the version
+     */
+    static int hashCode(int major, int minor, int patch, int preReleaseHash) {
+        int result = 5;
+        result = 97 * result + major;
+        result = 97 * result + minor;
+        result = 97 * result + patch;
+        result = 97 * result + preReleaseHash;
+        return result;
+    }
+
+    /**
+     * Returns a key that distinguishes this version from the
+     * versions that differ from it only in build metadata.
+     *
+     * The key is created once and cached on this instance, so it is
+     * shared by all the users of an interned version.
+     *
+     * @return the build-aware key of this version
+     * @see BuildAwareKey
+     * @since 0.10.0
+     */
+    public BuildAwareKey buildAwareKey() {
+        BuildAwareKey result = buildAwareKey;
+        if (result == null) {
+            result = new BuildAwareKey(this);
+            buildAwareKey = result;
+        }
+        return result;
+    }
+
+    /**
+     * Returns a 64-bit fingerprint of all the components of this version
+     * including build metadata.
+     *
+     * The fingerprint is the FNV-1a hash of the version numbers and
+     * identifiers, it is consistent with {@link #BUILD_AWARE_ORDER} and
+     * stable across JVMs, so it can be used as a distributed cache key.
+     * As any hash, it may collide for different versions.
+     *
+     * @return the fingerprint of this version
+     * @since 0.10.0
+     */
+    public long fingerprint() {
+        long result = fingerprint;
+        if (result == 0) {
+            result = fingerprint(FNV_OFFSET_BASIS, major);
+            result = fingerprint(result, minor);
+            result = fingerprint(result, patch);
+            result = fingerprint(result, preRelease);
+            result = fingerprint(result, build);
+            fingerprint = result;
+        }
+        return result;
+    }
+
+    /**
+     * Continues the fingerprint over the big-endian bytes of the number.
+     *
+     * @param hash the fingerprint of the preceding components
+     * @param number the version number
+     * @return the updated fingerprint
+     */
+    private static long fingerprint(long hash, int number) {
+        for (int shift = 24; shift >= 0; shift -= 8) {
+            hash = fnv1a(hash, number >>> shift);
+        }
         return hash;
     }
 
+    /**
+     * Continues the fingerprint over the metadata version.
+     *
+     * @param hash the fingerprint of the preceding components
+     * @param metadata the metadata version
+     * @return the updated fingerprint
+     */
+    private static long fingerprint(long hash, MetadataVersion metadata) {
+        if (metadata == MetadataVersion.NULL) {
+            return fnv1a(hash, 0);
+        }
+        return metadata.fingerprint(fnv1a(hash, 1));
+    }
+
+    /**
+     * Performs a step of the 64-bit FNV-1a hash.
+     *
+     * @param hash the current hash
+     * @param octet the next octet, only the lowest 8 bits are used
+     * @return the updated hash
+     */
+    static long fnv1a(long hash, int octet) {
+        return (hash ^ (octet & 0xFF)) * FNV_PRIME;
+    }
+
+    /**
+     * Checks if this version is identical to the other version,
+     * that is equal to it and having the same build metadata.
+     *
+     * @param other the other version to compare to
+     * @return {@code true} if the versions are identical
+     *         or {@code false} otherwise
+     * @see VersionPool
+     */
+    boolean isIdenticalTo(Version other) {
+        return this == other || equals(other) && build.hasSameIdentifiers(other.build);
+    }
+
+    /**
+     * Returns a hash code consistent with {@link #isIdenticalTo(Version)}.
+     *
+     * @return a hash code taking into account the build metadata
+     */
+    int identityHash() {
+        return 31 * hashCode() + build.hashCode();
+    }
+
+    /**
+     * Appends the string representation of this version
+     * to the specified string builder.
+     *
+     * Unlike {@code sb.append(version)} the method doesn't create
+     * the intermediate string unless it has been created already.
+     *
+     * @param sb the string builder to append to
+     * @return the specified string builder
+     * @since 0.10.0
+     */
+    public StringBuilder appendTo(StringBuilder sb) {
+        String result = string;
+        if (result != null) {
+            return sb.append(result);
+        }
+        appendNormalVersion(sb);
+        if (preRelease != MetadataVersion.NULL) {
+            sb.append(PRE_RELEASE_PREFIX);
+            preRelease.appendTo(sb);
+        }
+        if (build != MetadataVersion.NULL) {
+            sb.append(BUILD_PREFIX);
+            build.appendTo(sb);
+        }
+        return sb;
+    }
+
+    /**
+     * Appends the string representation of this version
+     * to the specified appendable, such as a {@code Writer}.
+     *
+     * The version is appended piece by piece without creating
+     * the intermediate string.
+     *
+     * @param out the appendable to append to
+     * @return the specified appendable
+     * @throws IOException if the appendable fails to append
+     * @since 0.10.0
+     */
+    public Appendable appendTo(Appendable out) throws IOException {
+        String result = string;
+        if (result != null) {
+            return out.append(result);
+        }
+        appendDigits(out, major);
+        out.append('.');
+        appendDigits(out, minor);
+        out.append('.');
+        appendDigits(out, patch);
+        if (preRelease != MetadataVersion.NULL) {
+            out.append(PRE_RELEASE_PREFIX);
+            preRelease.appendTo(out);
+        }
+        if (build != MetadataVersion.NULL) {
+            out.append(BUILD_PREFIX);
+            build.appendTo(out);
+        }
+        return out;
+    }
+
+    /**
+     * Writes the string representation of this version into
+     * the specified byte array as ASCII characters.
+     *
+     * Nothing is written if the version doesn't fit into the array.
+     *
+     * @param dst the byte array to write to
+     * @param offset the index to start writing at
+     * @return the index after the last written byte
+     * @throws IndexOutOfBoundsException if the version doesn't fit
+     *         into the array starting at the specified index
+     * @since 0.10.0
+     */
+    public int writeTo(byte[] dst, int offset) {
+        int length = length();
+        if (offset < 0 || offset > dst.length - length) {
+            throw new IndexOutOfBoundsException(
+                "offset " + offset + ", length " + length + ", capacity " + dst.length
+            );
+        }
+        offset = writeDigits(dst, offset, major);
+        dst[offset++] = '.';
+        offset = writeDigits(dst, offset, minor);
+        dst[offset++] = '.';
+        offset = writeDigits(dst, offset, patch);
+        if (preRelease != MetadataVersion.NULL) {
+            dst[offset++] = '-';
+            offset = preRelease.writeTo(dst, offset);
+        }
+        if (build != MetadataVersion.NULL) {
+            dst[offset++] = '+';
+            offset = build.writeTo(dst, offset);
+        }
+        return offset;
+    }
+
+    /**
+     * Writes the string representation of this version into
+     * the specified buffer as ASCII characters.
+     *
+     * The version is written at the current position of the buffer,
+     * which is then advanced past the version. Nothing is written if
+     * the version doesn't fit into the remaining space.
+     *
+     * @param dst the buffer to write to
+     * @return the specified buffer
+     * @throws BufferOverflowException if the version doesn't fit
+     *         into the remaining space of the buffer
+     * @throws ReadOnlyBufferException if the buffer is read-only
+     * @since 0.10.0
+     */
+    public ByteBuffer writeTo(ByteBuffer dst) {
+        int length = length();
+        if (dst.isReadOnly()) {
+            throw new ReadOnlyBufferException();
+        }
+        if (dst.remaining() < length) {
+            throw new BufferOverflowException();
+        }
+        if (dst.hasArray()) {
+            int position = dst.position();
+            writeTo(dst.array(), dst.arrayOffset() + position);
+            dst.position(position + length);
+            return dst;
+        }
+        writeDigits(dst, major);
+        dst.put((byte) '.');
+        writeDigits(dst, minor);
+        dst.put((byte) '.');
+        writeDigits(dst, patch);
+        if (preRelease != MetadataVersion.NULL) {
+            dst.put((byte) '-');
+            preRelease.writeTo(dst);
+        }
+        if (build != MetadataVersion.NULL) {
+            dst.put((byte) '+');
+            build.writeTo(dst);
+        }
+        return dst;
+    }
+
+    /**
+     * Returns the length of the string representation of this version.
+     *
+     * @return the number of characters in the string representation
+     */
+    private int length() {
+        String result = string;
+        if (result != null) {
+            return result.length();
+        }
+        int length = countDigits(major) + countDigits(minor) + countDigits(patch) + 2;
+        if (preRelease != MetadataVersion.NULL) {
+            length += 1 + preRelease.length();
+        }
+        if (build != MetadataVersion.NULL) {
+            length += 1 + build.length();
+        }
+        return length;
+    }
+
+    /**
+     * Counts the decimal digits of a non-negative integer.
+     *
+     * @param value the non-negative integer
+     * @return the number of decimal digits
+     */
+    private static int countDigits(int value) {
+        int count = 1;
+        while (value >= 10) {
+            value /= 10;
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Appends the decimal digits of a non-negative integer to the appendable.
+     *
+     * @param out the appendable to append to
+     * @param value the non-negative integer
+     * @throws IOException if the appendable fails to append
+     */
+    private static void appendDigits(Appendable out, int value) throws IOException {
+        int divisor = 1;
+        while (value / divisor >= 10) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            out.append((char) ('0' + value / divisor % 10));
+        }
+    }
+
+    /**
+     * Writes the decimal digits of a non-negative integer into the byte array.
+     *
+     * @param dst the byte array to write to
+     * @param offset the index to start writing at
+     * @param value the non-negative integer
+     * @return the index after the last written digit
+     */
+    private static int writeDigits(byte[] dst, int offset, int value) {
+        int end = offset + countDigits(value);
+        int index = end;
+        do {
+            dst[--index] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        return end;
+    }
+
+    /**
+     * Writes the decimal digits of a non-negative integer into the buffer.
+     *
+     * @param dst the buffer to write to
+     * @param value the non-negative integer
+     */
+    private static void writeDigits(ByteBuffer dst, int value) {
+        int end = dst.position() + countDigits(value);
+        int index = end;
+        do {
+            dst.put(--index, (byte) ('0' + value % 10));
+            value /= 10;
+        } while (value != 0);
+        dst.position(end);
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public String toString() {
-        StringBuilder sb = new StringBuilder(getNormalVersion());
-        if (!getPreReleaseVersion().isEmpty()) {
-            sb.append(PRE_RELEASE_PREFIX).append(getPreReleaseVersion());
+        String result = string;
+        if (result == null) {
+            result = appendTo(new StringBuilder(32)).toString();
+            string = result;
         }
-        if (!getBuildMetadata().isEmpty()) {
-            sb.append(BUILD_PREFIX).append(getBuildMetadata());
-        }
-        return sb.toString();
+        return result;
     }
 
     /**
@@ -776,9 +1876,15 @@ public class Version implements Comparable<Version>, Serializable {
      */
     @Override
     public int compareTo(Version other) {
-        int result = normal.compareTo(other.normal);
+        int result = Integer.compare(major, other.major);
         if (result == 0) {
-            result = preRelease.compareTo(other.preRelease);
+            result = Integer.compare(minor, other.minor);
+            if (result == 0) {
+                result = Integer.compare(patch, other.patch);
+                if (result == 0 && preRelease != other.preRelease) {
+                    result = preRelease.compareTo(other.preRelease);
+                }
+            }
         }
         return result;
     }
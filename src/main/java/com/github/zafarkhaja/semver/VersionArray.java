@@ -0,0 +1,512 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2012-2016 Zafar Khaja <zafarkhaja@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.zafarkhaja.semver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A growable array of versions stored column by column.
+ *
+ * The version numbers are held in {@code int} columns, the pre-release
+ * versions and the build metadata are held in dictionaries and referred
+ * to by their indexes, so a version takes up five {@code int}s regardless
+ * of its metadata. The versions are materialized only when requested by
+ * {@link #get(int)}.
+ *
+ * The array can be sorted in place in the natural order of versions and
+ * searched in that order, see {@link #sort()} and
+ * {@link #binarySearch(Version)}.
+ *
+ * Instances of this class are not thread-safe.
+ *
+ * @author Zafar Khaja &lt;zafarkhaja@gmail.com&gt;
+ * @since 0.10.0
+ */
+public final class VersionArray {
+
+    /**
+     * The index of the absent metadata in the dictionaries.
+     */
+    private static final int NONE = 0;
+
+    /**
+     * The maximum size of a range sorted by insertion.
+     */
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    /**
+     * The number of versions in the array.
+     */
+    private int size;
+
+    /**
+     * The major version numbers.
+     */
+    private int[] majors;
+
+    /**
+     * The minor version numbers.
+     */
+    private int[] minors;
+
+    /**
+     * The patch version numbers.
+     */
+    private int[] patches;
+
+    /**
+     * The indexes of the pre-release versions in their dictionary.
+     */
+    private int[] preReleases;
+
+    /**
+     * The indexes of the build metadata in their dictionary.
+     */
+    private int[] builds;
+
+    /**
+     * The dictionary of the pre-release versions.
+     */
+    private final Dictionary preReleaseDictionary = new Dictionary();
+
+    /**
+     * The dictionary of the build metadata.
+     */
+    private final Dictionary buildDictionary = new Dictionary();
+
+    /**
+     * The precedence ranks of the pre-release versions by their indexes,
+     * {@code null} if the dictionary has changed since they were computed.
+     */
+    private int[] preReleaseRanks;
+
+    /**
+     * A dictionary of the metadata versions keyed by their string
+     * representation, the index {@code NONE} stands for the absent metadata.
+     */
+    private static class Dictionary {
+
+        /**
+         * The metadata versions by their indexes.
+         */
+        private final List<MetadataVersion> entries = new ArrayList<>();
+
+        /**
+         * The indexes of the metadata versions by their string representation.
+         */
+        private final Map<String, Integer> indexes = new HashMap<>();
+
+        /**
+         * Constructs a dictionary holding the absent metadata only.
+         */
+        Dictionary() {
+            entries.add(MetadataVersion.NULL);
+        }
+
+        /**
+         * Returns the index of the metadata version, adding it if needed.
+         *
+         * @param metadata the metadata version
+         * @return the index of the metadata version
+         */
+        int indexOf(MetadataVersion metadata) {
+            if (metadata == MetadataVersion.NULL) {
+                return NONE;
+            }
+            Integer index = indexes.get(metadata.toString());
+            if (index == null) {
+                index = entries.size();
+                entries.add(metadata);
+                indexes.put(metadata.toString(), index);
+            }
+            return index;
+        }
+
+        /**
+         * Returns the metadata version at the index.
+         *
+         * @param index the index of the metadata version
+         * @return the metadata version
+         */
+        MetadataVersion get(int index) {
+            return entries.get(index);
+        }
+
+        /**
+         * Returns the number of the metadata versions.
+         *
+         * @return the number of the metadata versions
+         */
+        int size() {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Constructs an empty {@code VersionArray} instance.
+     */
+    public VersionArray() {
+        this(16);
+    }
+
+    /**
+     * Constructs an empty {@code VersionArray} instance
+     * with the specified initial capacity.
+     *
+     * @param capacity the initial capacity
+     * @throws IllegalArgumentException if the capacity is negative
+     */
+    public VersionArray(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity MUST NOT be negative");
+        }
+        majors = new int[capacity];
+        minors = new int[capacity];
+        patches = new int[capacity];
+        preReleases = new int[capacity];
+        builds = new int[capacity];
+    }
+
+    /**
+     * Appends the version to the end of this array.
+     *
+     * @param version the version to append
+     */
+    public void add(Version version) {
+        ensureCapacity(size + 1);
+        set(size++, version);
+    }
+
+    /**
+     * Appends all the versions to the end of this array.
+     *
+     * @param versions the versions to append
+     */
+    public void addAll(Collection<? extends Version> versions) {
+        ensureCapacity(size + versions.size());
+        for (Version version : versions) {
+            set(size++, version);
+        }
+    }
+
+    /**
+     * Materializes the version at the specified index.
+     *
+     * The versions materialized from the same array
+     * share their metadata objects.
+     *
+     * @param index the index of the version
+     * @return a new instance of the {@code Version} class
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public Version get(int index) {
+        checkIndex(index);
+        return new Version(
+            majors[index],
+            minors[index],
+            patches[index],
+            preReleaseDictionary.get(preReleases[index]),
+            buildDictionary.get(builds[index])
+        );
+    }
+
+    /**
+     * Returns the major version number of the version at the specified index.
+     *
+     * @param index the index of the version
+     * @return the major version number
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public int getMajorVersion(int index) {
+        checkIndex(index);
+        return majors[index];
+    }
+
+    /**
+     * Returns the minor version number of the version at the specified index.
+     *
+     * @param index the index of the version
+     * @return the minor version number
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public int getMinorVersion(int index) {
+        checkIndex(index);
+        return minors[index];
+    }
+
+    /**
+     * Returns the patch version number of the version at the specified index.
+     *
+     * @param index the index of the version
+     * @return the patch version number
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public int getPatchVersion(int index) {
+        checkIndex(index);
+        return patches[index];
+    }
+
+    /**
+     * Returns the number of versions in this array.
+     *
+     * @return the number of versions
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Sorts this array in place in the natural order of versions.
+     *
+     * The pre-release versions are compared once per distinct value
+     * before sorting, the sort itself compares integers only. The order
+     * of the versions that differ only in build metadata is unspecified.
+     *
+     * @see Version#compareTo(Version)
+     */
+    public void sort() {
+        int[] ranks = preReleaseRanks();
+        quickSort(ranks, 0, size - 1);
+    }
+
+    /**
+     * Searches this array for the version using the binary search.
+     *
+     * The array must be sorted in the natural order of versions,
+     * the build metadata is not taken into account.
+     *
+     * @param version the version to search for
+     * @return the index of a version equal to the specified one, otherwise
+     *         {@code (-(insertion point) - 1)} as {@code Arrays.binarySearch}
+     * @see #sort()
+     */
+    public int binarySearch(Version version) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int result = compareTo(mid, version);
+            if (result < 0) {
+                low = mid + 1;
+            } else if (result > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * Compares the version at the index to the specified version.
+     *
+     * @param index the index of the version
+     * @param version the version to compare to
+     * @return integer result of comparison compatible
+     *         with the {@code Comparable.compareTo} method
+     */
+    private int compareTo(int index, Version version) {
+        int result = Integer.compare(majors[index], version.getMajorVersion());
+        if (result == 0) {
+            result = Integer.compare(minors[index], version.getMinorVersion());
+            if (result == 0) {
+                result = Integer.compare(patches[index], version.getPatchVersion());
+                if (result == 0) {
+                    result = preReleaseDictionary.get(preReleases[index])
+                        .compareTo(version.preRelease());
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Compares the versions at two indexes.
+     *
+     * @param ranks the precedence ranks of the pre-release versions
+     * @param i the index of the first version
+     * @param j the index of the second version
+     * @return integer result of comparison compatible
+     *         with the {@code Comparable.compareTo} method
+     */
+    private int compare(int[] ranks, int i, int j) {
+        int result = Integer.compare(majors[i], majors[j]);
+        if (result == 0) {
+            result = Integer.compare(minors[i], minors[j]);
+            if (result == 0) {
+                result = Integer.compare(patches[i], patches[j]);
+                if (result == 0) {
+                    result = Integer.compare(ranks[preReleases[i]], ranks[preReleases[j]]);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Sorts the range of this array with the quicksort algorithm.
+     *
+     * @param ranks the precedence ranks of the pre-release versions
+     * @param low the index of the first version of the range
+     * @param high the index of the last version of the range
+     */
+    private void quickSort(int[] ranks, int low, int high) {
+        while (high - low >= INSERTION_SORT_THRESHOLD) {
+            int mid = (low + high) >>> 1;
+            if (compare(ranks, mid, low) < 0) {
+                swap(mid, low);
+            }
+            if (compare(ranks, high, low) < 0) {
+                swap(high, low);
+            }
+            if (compare(ranks, high, mid) < 0) {
+                swap(high, mid);
+            }
+            swap(mid, high - 1);
+            int pivot = high - 1;
+            int i = low;
+            int j = high - 1;
+            while (true) {
+                while (compare(ranks, ++i, pivot) < 0) {}
+                while (compare(ranks, --j, pivot) > 0) {}
+                if (i >= j) {
+                    break;
+                }
+                swap(i, j);
+            }
+            swap(i, high - 1);
+            if (i - low < high - i) {
+                quickSort(ranks, low, i - 1);
+                low = i + 1;
+            } else {
+                quickSort(ranks, i + 1, high);
+                high = i - 1;
+            }
+        }
+        for (int i = low + 1; i <= high; i++) {
+            for (int j = i; j > low && compare(ranks, j, j - 1) < 0; j--) {
+                swap(j, j - 1);
+            }
+        }
+    }
+
+    /**
+     * Swaps the versions at two indexes.
+     *
+     * @param i the index of the first version
+     * @param j the index of the second version
+     */
+    private void swap(int i, int j) {
+        swap(majors, i, j);
+        swap(minors, i, j);
+        swap(patches, i, j);
+        swap(preReleases, i, j);
+        swap(builds, i, j);
+    }
+
+    /**
+     * Swaps two elements of the column.
+     *
+     * @param column the column
+     * @param i the index of the first element
+     * @param j the index of the second element
+     */
+    private static void swap(int[] column, int i, int j) {
+        int value = column[i];
+        column[i] = column[j];
+        column[j] = value;
+    }
+
+    /**
+     * Returns the precedence ranks of the pre-release versions,
+     * computing them if the dictionary has changed.
+     *
+     * @return the ranks of the pre-release versions by their indexes
+     */
+    private int[] preReleaseRanks() {
+        int[] ranks = preReleaseRanks;
+        if (ranks != null && ranks.length == preReleaseDictionary.size()) {
+            return ranks;
+        }
+        Integer[] order = new Integer[preReleaseDictionary.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (i, j) -> preReleaseDictionary.get(i).compareTo(preReleaseDictionary.get(j)));
+        ranks = new int[order.length];
+        for (int rank = 0; rank < order.length; rank++) {
+            ranks[order[rank]] = rank;
+        }
+        preReleaseRanks = ranks;
+        return ranks;
+    }
+
+    /**
+     * Stores the version at the specified index.
+     *
+     * @param index the index to store the version at
+     * @param version the version to store
+     */
+    private void set(int index, Version version) {
+        majors[index] = version.getMajorVersion();
+        minors[index] = version.getMinorVersion();
+        patches[index] = version.getPatchVersion();
+        preReleases[index] = preReleaseDictionary.indexOf(version.preRelease());
+        builds[index] = buildDictionary.indexOf(version.build());
+    }
+
+    /**
+     * Grows the columns to hold at least the specified number of versions.
+     *
+     * @param capacity the required capacity
+     */
+    private void ensureCapacity(int capacity) {
+        if (capacity <= majors.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, majors.length + (majors.length >> 1) + 1);
+        majors = Arrays.copyOf(majors, newCapacity);
+        minors = Arrays.copyOf(minors, newCapacity);
+        patches = Arrays.copyOf(patches, newCapacity);
+        preReleases = Arrays.copyOf(preReleases, newCapacity);
+        builds = Arrays.copyOf(builds, newCapacity);
+    }
+
+    /**
+     * Checks if the index is within the bounds of this array.
+     *
+     * @param index the index to check
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+}
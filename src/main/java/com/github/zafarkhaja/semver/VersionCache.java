@@ -0,0 +1,144 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2012-2016 Zafar Khaja <zafarkhaja@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.zafarkhaja.semver;
+
+import com.github.zafarkhaja.semver.util.BoundedCache;
+
+/**
+ * A bounded thread-safe cache of the parsed versions.
+ *
+ * The cache maps version strings to the immutable {@code Version}
+ * instances parsed from them, so the recurring version strings are parsed
+ * only once and share the same instance. The least recently used versions
+ * are evicted when the cache gets full. Invalid version strings are not
+ * cached, they raise the same exceptions as {@link Version#valueOf(String)}
+ * on every call.
+ *
+ * A cache can be used on its own or installed globally with
+ * {@link #setGlobal(VersionCache)}, in which case it is used by
+ * {@link Version#valueOf(String)}. There is no global cache by default.
+ *
+ * @author Zafar Khaja &lt;zafarkhaja@gmail.com&gt;
+ * @since 0.10.0
+ */
+public class VersionCache {
+
+    /**
+     * The cache used by {@code Version.valueOf(String)}, if any.
+     */
+    private static volatile VersionCache global;
+
+    /**
+     * The underlying cache.
+     */
+    private final BoundedCache<String, Version> cache;
+
+    /**
+     * Constructs a cache holding up to the specified number of versions.
+     *
+     * @param maxSize the maximum number of the cached versions
+     * @throws IllegalArgumentException if the maximum size is not positive
+     */
+    public VersionCache(int maxSize) {
+        this.cache = new BoundedCache<>(maxSize);
+    }
+
+    /**
+     * Returns the globally installed cache.
+     *
+     * @return the global cache or {@code null} if there is none
+     */
+    public static VersionCache global() {
+        return global;
+    }
+
+    /**
+     * Installs the cache to be used by {@link Version#valueOf(String)}.
+     *
+     * @param cache the cache to install or {@code null} to disable caching
+     */
+    public static void setGlobal(VersionCache cache) {
+        global = cache;
+    }
+
+    /**
+     * Returns the version for the specified version string,
+     * parsing and caching it if it is not cached yet.
+     *
+     * @param version the version string to parse
+     * @return the cached or the newly parsed version
+     * @throws IllegalArgumentException if the input string is {@code NULL} or empty
+     * @throws ParseException when invalid version string is provided
+     * @throws UnexpectedCharacterException is a special case of {@code ParseException}
+     */
+    public Version valueOf(String version) {
+        if (version == null) {
+            throw new IllegalArgumentException("Input string is NULL or empty");
+        }
+        return cache.get(version, VersionParser::parseValidSemVer);
+    }
+
+    /**
+     * Removes all the cached versions, the statistics are kept.
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    /**
+     * Returns the number of the cached versions.
+     *
+     * @return the number of the cached versions
+     */
+    public int size() {
+        return cache.size();
+    }
+
+    /**
+     * Returns the maximum number of the cached versions.
+     *
+     * @return the maximum number of the cached versions
+     */
+    public int maxSize() {
+        return cache.maxSize();
+    }
+
+    /**
+     * Returns the number of the lookups that found a cached version.
+     *
+     * @return the number of cache hits
+     */
+    public long hitCount() {
+        return cache.hitCount();
+    }
+
+    /**
+     * Returns the number of the lookups that didn't find a cached version.
+     *
+     * @return the number of cache misses
+     */
+    public long missCount() {
+        return cache.missCount();
+    }
+}
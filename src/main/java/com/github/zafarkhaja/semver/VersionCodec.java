@@ -0,0 +1,336 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2012-2016 Zafar Khaja <zafarkhaja@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.zafarkhaja.semver;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A compact binary codec of versions.
+ *
+ * The codec writes and reads versions without the class descriptors
+ * of the Java serialization. The format of a version is:
+ * <pre>
+ * {@literal
+ * <version> ::= <major> <minor> <patch> <pre-release> <build>
+ *
+ * <major>, <minor>, <patch> ::= <varint>
+ *
+ * <pre-release>, <build> ::= <count> <identifiers>
+ *
+ * <count> ::= <varint>, zero for the absent metadata
+ *
+ * <identifier> ::= <varint: length << 1> <ASCII characters>
+ *                | <varint: index << 1 | 1>
+ * }
+ * </pre>
+ * where {@literal <varint>} is an unsigned integer written in groups of
+ * seven bits, least significant group first, with the high bit set on
+ * every byte but the last one.
+ *
+ * Every identifier written literally is added to the dictionary of the
+ * codec, the identifiers that reappear are written as the indexes into
+ * the dictionary. A sequence of versions has to be read by a codec in
+ * the same state as the one that has written it, e.g. by a new codec
+ * reading the versions in the order they were written. The dictionary
+ * holds up to {@value #MAX_DICTIONARY_SIZE} identifiers and is cleared
+ * by {@link #reset()}. The Java serialization of versions encodes every
+ * version with a new codec, so the identifiers are only shared by the
+ * versions written with the same codec instance directly.
+ *
+ * Instances of this class are not thread-safe.
+ *
+ * @author Zafar Khaja &lt;zafarkhaja@gmail.com&gt;
+ * @since 0.10.0
+ */
+public final class VersionCodec {
+
+    /**
+     * The maximum number of identifiers in the dictionary.
+     */
+    public static final int MAX_DICTIONARY_SIZE = 1 << 16;
+
+    /**
+     * A destination of the encoded bytes.
+     */
+    private interface ByteSink {
+
+        /**
+         * Writes the low eight bits of the argument.
+         *
+         * @param b the byte to write
+         * @throws IOException if an I/O error occurs
+         */
+        void write(int b) throws IOException;
+    }
+
+    /**
+     * A source of the encoded bytes.
+     */
+    private interface ByteSource {
+
+        /**
+         * Reads an unsigned byte.
+         *
+         * @return the byte read
+         * @throws IOException if an I/O error occurs
+         */
+        int read() throws IOException;
+    }
+
+    /**
+     * The indexes of the identifiers written so far.
+     */
+    private final Map<String, Integer> writtenIdentifiers = new HashMap<>();
+
+    /**
+     * The identifiers read so far.
+     */
+    private final List<String> readIdentifiers = new ArrayList<>();
+
+    /**
+     * Writes the version to the data output.
+     *
+     * @param version the version to write
+     * @param out the data output to write to
+     * @throws IOException if an I/O error occurs
+     */
+    public void write(Version version, DataOutput out) throws IOException {
+        write(version, out::writeByte);
+    }
+
+    /**
+     * Writes the version to the buffer at its current position.
+     *
+     * @param version the version to write
+     * @param dst the buffer to write to
+     * @return the specified buffer
+     * @throws BufferOverflowException if the buffer has not enough space,
+     *         the buffer contains a part of the version then
+     */
+    public ByteBuffer write(Version version, ByteBuffer dst) {
+        try {
+            write(version, b -> dst.put((byte) b));
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+        return dst;
+    }
+
+    /**
+     * Reads a version from the data input.
+     *
+     * @param in the data input to read from
+     * @return the version read
+     * @throws StreamCorruptedException if the data doesn't represent a valid version
+     * @throws IOException if an I/O error occurs
+     */
+    public Version read(DataInput in) throws IOException {
+        return read(in::readUnsignedByte);
+    }
+
+    /**
+     * Reads a version from the buffer at its current position.
+     *
+     * @param src the buffer to read from
+     * @return the version read
+     * @throws BufferUnderflowException if the buffer ends before the version
+     * @throws IllegalArgumentException if the data doesn't represent a valid version
+     */
+    public Version read(ByteBuffer src) {
+        try {
+            return read(() -> src.get() & 0xFF);
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Clears the dictionaries of the written and read identifiers.
+     */
+    public void reset() {
+        writtenIdentifiers.clear();
+        readIdentifiers.clear();
+    }
+
+    /**
+     * Writes the version to the byte sink.
+     *
+     * @param version the version to write
+     * @param sink the byte sink to write to
+     * @throws IOException if an I/O error occurs
+     */
+    private void write(Version version, ByteSink sink) throws IOException {
+        writeVarint(sink, version.getMajorVersion());
+        writeVarint(sink, version.getMinorVersion());
+        writeVarint(sink, version.getPatchVersion());
+        writeMetadata(sink, version.preRelease());
+        writeMetadata(sink, version.build());
+    }
+
+    /**
+     * Writes the identifiers of the metadata version to the byte sink.
+     *
+     * @param sink the byte sink to write to
+     * @param metadata the metadata version to write
+     * @throws IOException if an I/O error occurs
+     */
+    private void writeMetadata(ByteSink sink, MetadataVersion metadata) throws IOException {
+        if (metadata == MetadataVersion.NULL) {
+            writeVarint(sink, 0);
+            return;
+        }
+        writeVarint(sink, metadata.size());
+        for (int i = 0; i < metadata.size(); i++) {
+            String ident = metadata.identifier(i);
+            Integer index = writtenIdentifiers.get(ident);
+            if (index != null) {
+                writeVarint(sink, index << 1 | 1);
+                continue;
+            }
+            if (writtenIdentifiers.size() < MAX_DICTIONARY_SIZE) {
+                writtenIdentifiers.put(ident, writtenIdentifiers.size());
+            }
+            writeVarint(sink, ident.length() << 1);
+            for (int j = 0; j < ident.length(); j++) {
+                sink.write(ident.charAt(j));
+            }
+        }
+    }
+
+    /**
+     * Reads a version from the byte source.
+     *
+     * @param source the byte source to read from
+     * @return the version read
+     * @throws IOException if an I/O error occurs or the data is corrupted
+     */
+    private Version read(ByteSource source) throws IOException {
+        int major = readVarint(source);
+        int minor = readVarint(source);
+        int patch = readVarint(source);
+        MetadataVersion preRelease = readMetadata(source, true);
+        MetadataVersion build = readMetadata(source, false);
+        return new Version(major, minor, patch, preRelease, build);
+    }
+
+    /**
+     * Reads the identifiers of a metadata version from the byte source.
+     *
+     * @param source the byte source to read from
+     * @param preRelease whether the pre-release version is read
+     * @return the metadata version read
+     * @throws IOException if an I/O error occurs or the data is corrupted
+     */
+    private MetadataVersion readMetadata(ByteSource source, boolean preRelease) throws IOException {
+        int count = readVarint(source);
+        if (count == 0) {
+            return MetadataVersion.NULL;
+        }
+        String[] idents = new String[Math.min(count, 64)];
+        for (int i = 0; i < count; i++) {
+            if (i == idents.length) {
+                idents = Arrays.copyOf(idents, Math.min(count, i * 2));
+            }
+            int header = readVarint(source);
+            String ident;
+            if ((header & 1) != 0) {
+                int index = header >>> 1;
+                if (index >= readIdentifiers.size()) {
+                    throw new StreamCorruptedException(
+                        "Unknown identifier index " + index
+                    );
+                }
+                ident = readIdentifiers.get(index);
+            } else {
+                /*
+                 * The length comes from the stream, so the identifier
+                 * grows with the bytes actually read instead of being
+                 * preallocated for whatever length the stream claims.
+                 */
+                int length = header >>> 1;
+                StringBuilder sb = new StringBuilder(Math.min(length, 64));
+                for (int j = 0; j < length; j++) {
+                    sb.append((char) source.read());
+                }
+                ident = sb.toString();
+                if (readIdentifiers.size() < MAX_DICTIONARY_SIZE) {
+                    readIdentifiers.add(ident);
+                }
+            }
+            if (!VersionParser.isValidIdentifier(ident, preRelease)) {
+                throw new StreamCorruptedException("Invalid identifier '" + ident + "'");
+            }
+            idents[i] = ident;
+        }
+        return new MetadataVersion(idents);
+    }
+
+    /**
+     * Writes a non-negative integer as a varint.
+     *
+     * @param sink the byte sink to write to
+     * @param value the non-negative integer
+     * @throws IOException if an I/O error occurs
+     */
+    private static void writeVarint(ByteSink sink, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            sink.write(value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+        sink.write(value);
+    }
+
+    /**
+     * Reads a non-negative integer written as a varint.
+     *
+     * @param source the byte source to read from
+     * @return the non-negative integer
+     * @throws IOException if an I/O error occurs or the varint is malformed
+     */
+    private static int readVarint(ByteSource source) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = source.read();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                if (value < 0 || shift == 28 && b > 0x07) {
+                    throw new StreamCorruptedException("Varint out of range");
+                }
+                return value;
+            }
+        }
+        throw new StreamCorruptedException("Malformed varint");
+    }
+}
@@ -0,0 +1,312 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2012-2016 Zafar Khaja <zafarkhaja@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.zafarkhaja.semver;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * An encoder of versions into order-preserving binary keys.
+ *
+ * The keys compare in the unsigned lexicographic byte order exactly as
+ * the versions they encode, so they can be sorted and range-scanned by
+ * stores and off-heap structures that compare keys byte by byte, see
+ * {@link #compare(byte[], byte[])}. There are two codecs:
+ * <ul>
+ * <li>{@link #PRECEDENCE} orders the keys as {@code Version.compareTo},
+ *     the versions differing only in build metadata get equal keys</li>
+ * <li>{@link #BUILD_AWARE} orders the keys as
+ *     {@code Version.BUILD_AWARE_ORDER}</li>
+ * </ul>
+ *
+ * The key layout is:
+ * <pre>
+ * {@literal
+ * <key> ::= <major> <minor> <patch> <pre-release> [ <build> ]
+ *
+ * <major>, <minor>, <patch> ::= 4-byte big-endian integer
+ *
+ * <pre-release> ::= 0x01 <identifiers> | 0x02
+ * <build>       ::= 0x01 | 0x02 <identifiers>
+ *
+ * <identifiers> ::= <identifier> <identifiers> | 0x00
+ * <identifier>  ::= 0x01 <length> <significant digits>
+ *                 | 0x02 <characters> 0x00
+ *
+ * <length> ::= 1 byte, if less than 255
+ *            | 0xFF 4-byte big-endian integer
+ * }
+ * </pre>
+ *
+ * The pre-release marker {@code 0x01} sorts the pre-release versions
+ * before the associated normal version, the numeric identifiers sort
+ * by the number of significant digits first. The encoding is one-way,
+ * the leading zeroes of the numeric build identifiers are not preserved.
+ *
+ * @author Zafar Khaja &lt;zafarkhaja@gmail.com&gt;
+ * @since 0.10.0
+ */
+public final class VersionKeyCodec {
+
+    /**
+     * The codec ordering the keys as {@code Version.compareTo}.
+     */
+    public static final VersionKeyCodec PRECEDENCE = new VersionKeyCodec(false);
+
+    /**
+     * The codec ordering the keys as {@code Version.BUILD_AWARE_ORDER}.
+     */
+    public static final VersionKeyCodec BUILD_AWARE = new VersionKeyCodec(true);
+
+    /**
+     * The marker of the present pre-release version and of the absent
+     * build metadata, also the tag of the numeric identifiers.
+     */
+    private static final byte LOWER = 0x01;
+
+    /**
+     * The marker of the absent pre-release version and of the present
+     * build metadata, also the tag of the alphanumeric identifiers.
+     */
+    private static final byte HIGHER = 0x02;
+
+    /**
+     * The terminator of the alphanumeric identifiers and of the lists.
+     */
+    private static final byte END = 0x00;
+
+    /**
+     * The first byte of the lengths encoded in five bytes.
+     */
+    private static final int LONG_LENGTH = 0xFF;
+
+    /**
+     * Whether the build metadata is encoded.
+     */
+    private final boolean buildAware;
+
+    /**
+     * Constructs a codec.
+     *
+     * @param buildAware whether the build metadata is encoded
+     */
+    private VersionKeyCodec(boolean buildAware) {
+        this.buildAware = buildAware;
+    }
+
+    /**
+     * Compares two keys in the unsigned lexicographic byte order.
+     *
+     * @param key1 the first key
+     * @param key2 the second key
+     * @return a negative integer, zero or a positive integer if the first
+     *         key is less than, equal to or greater than the second key
+     */
+    public static int compare(byte[] key1, byte[] key2) {
+        int length = Math.min(key1.length, key2.length);
+        for (int i = 0; i < length; i++) {
+            int result = Integer.compare(key1[i] & 0xFF, key2[i] & 0xFF);
+            if (result != 0) {
+                return result;
+            }
+        }
+        return Integer.compare(key1.length, key2.length);
+    }
+
+    /**
+     * Encodes the version into a new key.
+     *
+     * @param version the version to encode
+     * @return the key of the version
+     */
+    public byte[] encode(Version version) {
+        byte[] key = new byte[encodedLength(version)];
+        encode(version, key, 0);
+        return key;
+    }
+
+    /**
+     * Encodes the version into the buffer at its current position,
+     * which is then advanced past the key.
+     *
+     * @param version the version to encode
+     * @param dst the buffer to write the key to
+     * @return the specified buffer
+     * @throws BufferOverflowException if the key doesn't fit
+     *         into the remaining space of the buffer
+     */
+    public ByteBuffer encode(Version version, ByteBuffer dst) {
+        int length = encodedLength(version);
+        if (dst.remaining() < length) {
+            throw new BufferOverflowException();
+        }
+        if (dst.hasArray() && !dst.isReadOnly()) {
+            int position = dst.position();
+            encode(version, dst.array(), dst.arrayOffset() + position);
+            dst.position(position + length);
+        } else {
+            dst.put(encode(version));
+        }
+        return dst;
+    }
+
+    /**
+     * Returns the length of the key of the version.
+     *
+     * @param version the version to encode
+     * @return the number of bytes in the key
+     */
+    public int encodedLength(Version version) {
+        int length = 12 + 1;
+        MetadataVersion preRelease = version.preRelease();
+        if (preRelease != MetadataVersion.NULL) {
+            length += identifiersLength(preRelease);
+        }
+        if (buildAware) {
+            length += 1;
+            MetadataVersion build = version.build();
+            if (build != MetadataVersion.NULL) {
+                length += identifiersLength(build);
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Encodes the version into the byte array.
+     *
+     * @param version the version to encode
+     * @param dst the byte array to write to
+     * @param offset the index to start writing at
+     * @return the index after the key
+     */
+    private int encode(Version version, byte[] dst, int offset) {
+        offset = writeInt(dst, offset, version.getMajorVersion());
+        offset = writeInt(dst, offset, version.getMinorVersion());
+        offset = writeInt(dst, offset, version.getPatchVersion());
+        MetadataVersion preRelease = version.preRelease();
+        if (preRelease != MetadataVersion.NULL) {
+            dst[offset++] = LOWER;
+            offset = writeIdentifiers(dst, offset, preRelease);
+        } else {
+            dst[offset++] = HIGHER;
+        }
+        if (buildAware) {
+            MetadataVersion build = version.build();
+            if (build != MetadataVersion.NULL) {
+                dst[offset++] = HIGHER;
+                offset = writeIdentifiers(dst, offset, build);
+            } else {
+                dst[offset++] = LOWER;
+            }
+        }
+        return offset;
+    }
+
+    /**
+     * Returns the length of the encoded identifiers.
+     *
+     * @param metadata the identifiers to encode
+     * @return the number of bytes of the encoded identifiers
+     */
+    private static int identifiersLength(MetadataVersion metadata) {
+        int length = 1;
+        for (int i = 0; i < metadata.size(); i++) {
+            String ident = metadata.identifier(i);
+            if (metadata.isNumeric(i)) {
+                int digits = ident.length() - firstSignificantDigit(ident);
+                length += 1 + (digits < LONG_LENGTH ? 1 : 5) + digits;
+            } else {
+                length += 1 + ident.length() + 1;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Writes the encoded identifiers into the byte array.
+     *
+     * @param dst the byte array to write to
+     * @param offset the index to start writing at
+     * @param metadata the identifiers to encode
+     * @return the index after the encoded identifiers
+     */
+    private static int writeIdentifiers(byte[] dst, int offset, MetadataVersion metadata) {
+        for (int i = 0; i < metadata.size(); i++) {
+            String ident = metadata.identifier(i);
+            int from = 0;
+            if (metadata.isNumeric(i)) {
+                from = firstSignificantDigit(ident);
+                int digits = ident.length() - from;
+                dst[offset++] = LOWER;
+                if (digits < LONG_LENGTH) {
+                    dst[offset++] = (byte) digits;
+                } else {
+                    dst[offset++] = (byte) LONG_LENGTH;
+                    offset = writeInt(dst, offset, digits);
+                }
+            } else {
+                dst[offset++] = HIGHER;
+            }
+            for (int j = from; j < ident.length(); j++) {
+                dst[offset++] = (byte) ident.charAt(j);
+            }
+            if (!metadata.isNumeric(i)) {
+                dst[offset++] = END;
+            }
+        }
+        dst[offset++] = END;
+        return offset;
+    }
+
+    /**
+     * Returns the index of the first significant digit of a numeric identifier.
+     *
+     * @param digits the numeric identifier
+     * @return the index after the leading zeroes
+     */
+    private static int firstSignificantDigit(String digits) {
+        int index = 0;
+        while (index < digits.length() - 1 && digits.charAt(index) == '0') {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Writes a big-endian integer into the byte array.
+     *
+     * @param dst the byte array to write to
+     * @param offset the index to start writing at
+     * @param value the integer to write
+     * @return the index after the integer
+     */
+    private static int writeInt(byte[] dst, int offset, int value) {
+        dst[offset++] = (byte) (value >>> 24);
+        dst[offset++] = (byte) (value >>> 16);
+        dst[offset++] = (byte) (value >>> 8);
+        dst[offset++] = (byte) value;
+        return offset;
+    }
+}
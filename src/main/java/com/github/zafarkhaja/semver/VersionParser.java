@@ -24,15 +24,20 @@
 package com.github.zafarkhaja.semver;
 
 import com.github.zafarkhaja.semver.util.Stream;
-import com.github.zafarkhaja.semver.util.UnexpectedElementException;
-import java.util.ArrayList;
-import java.util.EnumSet;
-import java.util.List;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.util.Arrays;
 import static com.github.zafarkhaja.semver.VersionParser.CharType.*;
 
 /**
  * A parser for the SemVer Version.
  *
+ * The parser works in two passes. The first pass scans the input by index,
+ * classifying the characters with a lookup table, and reports an error as a
+ * primitive code instead of throwing it. The second pass builds the version
+ * from the input the first pass has accepted, so the only objects created
+ * are the parts of the resulting version. Validation alone never allocates.
+ *
  * @author Zafar Khaja &lt;zafarkhaja@gmail.com&gt;
  * @since 0.7.0
  */
@@ -43,91 +48,40 @@ class VersionParser implements Parser<Version> {
      */
     static enum CharType implements Stream.ElementType<Character> {
 
-        DIGIT {
-            /**
-             * {@inheritDoc}
-             */
-            @Override
-            public boolean isMatchedBy(Character chr) {
-                if (chr == null) {
-                    return false;
-                }
-                return chr >= '0' && chr <= '9';
-            }
-        },
-        LETTER {
-            /**
-             * {@inheritDoc}
-             */
-            @Override
-            public boolean isMatchedBy(Character chr) {
-                if (chr == null) {
-                    return false;
-                }
-                return (chr >= 'a' && chr <= 'z')
-                    || (chr >= 'A' && chr <= 'Z');
-            }
-        },
-        DOT {
-            /**
-             * {@inheritDoc}
-             */
-            @Override
-            public boolean isMatchedBy(Character chr) {
-                if (chr == null) {
-                    return false;
-                }
-                return chr == '.';
-            }
-        },
-        HYPHEN {
-            /**
-             * {@inheritDoc}
-             */
-            @Override
-            public boolean isMatchedBy(Character chr) {
-                if (chr == null) {
-                    return false;
-                }
-                return chr == '-';
-            }
-        },
-        PLUS {
-            /**
-             * {@inheritDoc}
-             */
-            @Override
-            public boolean isMatchedBy(Character chr) {
-                if (chr == null) {
-                    return false;
-                }
-                return chr == '+';
-            }
-        },
-        EOI {
-            /**
-             * {@inheritDoc}
-             */
-            @Override
-            public boolean isMatchedBy(Character chr) {
-                return chr == null;
+        DIGIT,
+        LETTER,
+        DOT,
+        HYPHEN,
+        PLUS,
+        EOI,
+        ILLEGAL;
+
+        /**
+         * The lookup table of the ASCII character types.
+         */
+        private static final CharType[] ASCII_TYPES = new CharType[128];
+
+        static {
+            Arrays.fill(ASCII_TYPES, ILLEGAL);
+            for (char chr = '0'; chr <= '9'; chr++) {
+                ASCII_TYPES[chr] = DIGIT;
             }
-        },
-        ILLEGAL {
-            /**
-             * {@inheritDoc}
-             */
-            @Override
-            public boolean isMatchedBy(Character chr) {
-                EnumSet<CharType> itself = EnumSet.of(ILLEGAL);
-                for (CharType type : EnumSet.complementOf(itself)) {
-                    if (type.isMatchedBy(chr)) {
-                        return false;
-                    }
-                }
-                return true;
+            for (char chr = 'a'; chr <= 'z'; chr++) {
+                ASCII_TYPES[chr] = LETTER;
+                ASCII_TYPES[chr - 'a' + 'A'] = LETTER;
             }
-        };
+            ASCII_TYPES['.'] = DOT;
+            ASCII_TYPES['-'] = HYPHEN;
+            ASCII_TYPES['+'] = PLUS;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean isMatchedBy(Character chr) {
+            return forCharacter(chr) == this;
+        }
 
         /**
          * Gets the type for a given character.
@@ -136,19 +90,78 @@ class VersionParser implements Parser<Version> {
          * @return the type of the specified character
          */
         static CharType forCharacter(Character chr) {
-            for (CharType type : values()) {
-                if (type.isMatchedBy(chr)) {
-                    return type;
-                }
-            }
-            return null;
+            return chr == null ? EOI : forChar(chr);
+        }
+
+        /**
+         * Gets the type for a given primitive character.
+         *
+         * @param chr the character to get the type for
+         * @return the type of the specified character, never {@code EOI}
+         */
+        static CharType forChar(char chr) {
+            return chr < ASCII_TYPES.length ? ASCII_TYPES[chr] : ILLEGAL;
+        }
+    }
+
+    /**
+     * The errors detected by the scanning pass.
+     *
+     * A scanning method returns the index where it stopped or, in case of
+     * an error, a negative number encoding the error and its index.
+     *
+     * @see #failure(ScanError, int)
+     */
+    private static enum ScanError {
+
+        UNEXPECTED_NON_DIGIT(DIGIT),
+        UNEXPECTED_NON_IDENTIFIER(DIGIT, LETTER, HYPHEN),
+        UNEXPECTED_AFTER_VERSION_CORE(HYPHEN, PLUS, EOI),
+        UNEXPECTED_AFTER_PRE_RELEASE(PLUS, EOI),
+        UNEXPECTED_BEFORE_END(EOI),
+        EMPTY_IDENTIFIER(DIGIT, LETTER, HYPHEN),
+        LEADING_ZEROES,
+        NUMBER_OVERFLOW;
+
+        /**
+         * The errors indexed by their ordinals.
+         */
+        private static final ScanError[] VALUES = values();
+
+        /**
+         * The character types expected instead of the erroneous one.
+         */
+        private final CharType[] expected;
+
+        /**
+         * Constructs a scan error with the expected character types.
+         *
+         * @param expected the expected character types
+         */
+        ScanError(CharType... expected) {
+            this.expected = expected;
         }
     }
 
     /**
-     * The stream of characters.
+     * The input being parsed.
+     */
+    private final CharSequence input;
+
+    /**
+     * The index of the first character to parse.
+     */
+    private final int start;
+
+    /**
+     * The index after the last character to parse.
+     */
+    private final int end;
+
+    /**
+     * The index of the next character to consume.
      */
-    private final Stream<Character> chars;
+    private int offset;
 
     /**
      * Constructs a {@code VersionParser} instance
@@ -158,14 +171,56 @@ class VersionParser implements Parser<Version> {
      * @throws IllegalArgumentException if the input string is {@code NULL} or empty
      */
     VersionParser(String input) {
-        if (input == null || input.isEmpty()) {
+        this(input, 0, input == null ? 0 : input.length());
+    }
+
+    /**
+     * Constructs a {@code VersionParser} instance
+     * with a range of the character sequence to parse.
+     *
+     * The characters are parsed in place, the positions reported
+     * in the parse errors are relative to the start of the range.
+     *
+     * @param input the character sequence containing the input
+     * @param start the index of the first character to parse
+     * @param end the index after the last character to parse
+     * @throws IllegalArgumentException if the input is {@code NULL} or the range is empty
+     * @throws IndexOutOfBoundsException if the range is out of the input bounds
+     * @since 0.10.0
+     */
+    VersionParser(CharSequence input, int start, int end) {
+        if (input == null) {
             throw new IllegalArgumentException("Input string is NULL or empty");
         }
-        Character[] elements = new Character[input.length()];
-        for (int i = 0; i < input.length(); i++) {
-            elements[i] = input.charAt(i);
+        if (start < 0 || start > end || end > input.length()) {
+            throw new IndexOutOfBoundsException(
+                "start " + start + ", end " + end + ", length " + input.length()
+            );
+        }
+        if (start == end) {
+            throw new IllegalArgumentException("Input string is NULL or empty");
         }
-        chars = new Stream<Character>(elements);
+        this.input = input;
+        this.start = start;
+        this.end = end;
+        this.offset = start;
+    }
+
+    /**
+     * Constructs a {@code VersionParser} instance
+     * with a range of the character array to parse.
+     *
+     * The array is neither copied nor modified.
+     *
+     * @param input the character array containing the input
+     * @param offset the index of the first character to parse
+     * @param length the number of characters to parse
+     * @throws IllegalArgumentException if the input is {@code NULL} or the range is empty
+     * @throws IndexOutOfBoundsException if the range is out of the array bounds
+     * @since 0.10.0
+     */
+    VersionParser(char[] input, int offset, int length) {
+        this(input == null ? null : CharBuffer.wrap(input), offset, offset + length);
     }
 
     /**
@@ -196,6 +251,147 @@ class VersionParser implements Parser<Version> {
         return parser.parseValidSemVer();
     }
 
+    /**
+     * Parses the whole version from a range of the character sequence.
+     *
+     * @param version the character sequence containing the version
+     * @param start the index of the first character of the version
+     * @param end the index after the last character of the version
+     * @return a valid version object
+     * @throws IllegalArgumentException if the input is {@code NULL} or the range is empty
+     * @throws IndexOutOfBoundsException if the range is out of the input bounds
+     * @throws ParseException when there is a grammar error
+     * @throws UnexpectedCharacterException when encounters an unexpectedToken character type
+     * @since 0.10.0
+     */
+    static Version parseValidSemVer(CharSequence version, int start, int end) {
+        VersionParser parser = new VersionParser(version, start, end);
+        return parser.parseValidSemVer();
+    }
+
+    /**
+     * Parses the whole version from a range of the character array.
+     *
+     * @param version the character array containing the version
+     * @param offset the index of the first character of the version
+     * @param length the number of characters of the version
+     * @return a valid version object
+     * @throws IllegalArgumentException if the input is {@code NULL} or the range is empty
+     * @throws IndexOutOfBoundsException if the range is out of the array bounds
+     * @throws ParseException when there is a grammar error
+     * @throws UnexpectedCharacterException when encounters an unexpectedToken character type
+     * @since 0.10.0
+     */
+    static Version parseValidSemVer(char[] version, int offset, int length) {
+        VersionParser parser = new VersionParser(version, offset, length);
+        return parser.parseValidSemVer();
+    }
+
+    /**
+     * Parses the whole version from a range of the byte array.
+     *
+     * The bytes are read as ASCII characters without charset decoding.
+     *
+     * @param version the byte array containing the version
+     * @param offset the index of the first byte of the version
+     * @param length the number of bytes of the version
+     * @return a valid version object
+     * @throws IllegalArgumentException if the input is {@code NULL} or the range is empty
+     * @throws IndexOutOfBoundsException if the range is out of the array bounds
+     * @throws ParseException when there is a grammar error
+     * @throws UnexpectedCharacterException when encounters an unexpectedToken character type
+     * @since 0.10.0
+     */
+    static Version parseValidSemVer(byte[] version, int offset, int length) {
+        CharSequence input = version == null ? null : new AsciiSequence(version);
+        VersionParser parser = new VersionParser(input, offset, offset + length);
+        return parser.parseValidSemVer();
+    }
+
+    /**
+     * Parses the whole version from the remaining bytes of the buffer.
+     *
+     * The bytes are read as ASCII characters without charset decoding,
+     * the position of the buffer is not modified.
+     *
+     * @param version the buffer containing the version
+     * @return a valid version object
+     * @throws IllegalArgumentException if the input is {@code NULL} or has no remaining bytes
+     * @throws ParseException when there is a grammar error
+     * @throws UnexpectedCharacterException when encounters an unexpectedToken character type
+     * @since 0.10.0
+     */
+    static Version parseValidSemVer(ByteBuffer version) {
+        CharSequence input = version == null ? null : new AsciiSequence(version);
+        VersionParser parser = new VersionParser(input, 0, input == null ? 0 : input.length());
+        return parser.parseValidSemVer();
+    }
+
+    /**
+     * Parses the whole version if the input is valid.
+     *
+     * @param version the version string to parse
+     * @return a valid version object or {@code null} if the
+     *         input string is {@code NULL}, empty or invalid
+     * @since 0.10.0
+     */
+    static Version tryParseValidSemVer(String version) {
+        if (!isValidSemVer(version)) {
+            return null;
+        }
+        VersionParser parser = new VersionParser(version);
+        return parser.createValidSemVer();
+    }
+
+    /**
+     * Checks if the input is a valid version.
+     *
+     * The check neither allocates objects nor throws exceptions.
+     *
+     * @param version the character sequence to check
+     * @return {@code true} if the input is a valid version
+     *         or {@code false} if it is {@code NULL}, empty or invalid
+     * @since 0.10.0
+     */
+    static boolean isValidSemVer(CharSequence version) {
+        if (version == null || version.length() == 0) {
+            return false;
+        }
+        return scanValidSemVer(version, 0, version.length()) >= 0;
+    }
+
+    /**
+     * Checks if the input is a valid pre-release or build identifier.
+     *
+     * <pre>
+     * {@literal
+     * <pre-release identifier> ::= <alphanumeric identifier>
+     *                            | <numeric identifier>
+     *
+     * <build identifier> ::= <alphanumeric identifier>
+     *                      | <digits>
+     * }
+     * </pre>
+     *
+     * @param ident the identifier to check
+     * @param preRelease whether the identifier is a pre-release identifier
+     * @return {@code true} if the input is a valid identifier
+     *         or {@code false} otherwise
+     * @since 0.10.0
+     */
+    static boolean isValidIdentifier(CharSequence ident, boolean preRelease) {
+        if (ident == null || ident.length() == 0) {
+            return false;
+        }
+        int end = ident.length();
+        long result = isAlphanumericIdentifier(ident, 0, end, false)
+            ? scanAlphanumericIdentifier(ident, 0, end)
+            : preRelease
+                ? scanNumericIdentifier(ident, 0, end, false)
+                : scanDigits(ident, 0, end);
+        return result == end;
+    }
+
     /**
      * Parses the version core.
      *
@@ -206,8 +402,23 @@ class VersionParser implements Parser<Version> {
      * @throws UnexpectedCharacterException when encounters an unexpectedToken character type
      */
     static NormalVersion parseVersionCore(String versionCore) {
+        return parseVersionCore(versionCore, false);
+    }
+
+    /**
+     * Parses the version core, optionally requiring it to span the whole input.
+     *
+     * @param versionCore the version core string to parse
+     * @param wholeInput whether characters after the version core are an error
+     * @return a valid version core object
+     * @throws IllegalArgumentException if the input string is {@code NULL} or empty
+     * @throws ParseException when there is a grammar error
+     * @throws UnexpectedCharacterException when encounters an unexpectedToken character type
+     * @since 0.10.0
+     */
+    static NormalVersion parseVersionCore(String versionCore, boolean wholeInput) {
         VersionParser parser = new VersionParser(versionCore);
-        return parser.parseVersionCore();
+        return parser.parseVersionCore(wholeInput);
     }
 
     /**
@@ -220,8 +431,23 @@ class VersionParser implements Parser<Version> {
      * @throws UnexpectedCharacterException when encounters an unexpectedToken character type
      */
     static MetadataVersion parsePreRelease(String preRelease) {
+        return parsePreRelease(preRelease, false);
+    }
+
+    /**
+     * Parses the pre-release version, optionally requiring it to span the whole input.
+     *
+     * @param preRelease the pre-release version string to parse
+     * @param wholeInput whether characters after the pre-release version are an error
+     * @return a valid pre-release version object
+     * @throws IllegalArgumentException if the input string is {@code NULL} or empty
+     * @throws ParseException when there is a grammar error
+     * @throws UnexpectedCharacterException when encounters an unexpectedToken character type
+     * @since 0.10.0
+     */
+    static MetadataVersion parsePreRelease(String preRelease, boolean wholeInput) {
         VersionParser parser = new VersionParser(preRelease);
-        return parser.parsePreRelease();
+        return parser.parsePreRelease(wholeInput);
     }
 
     /**
@@ -234,13 +460,89 @@ class VersionParser implements Parser<Version> {
      * @throws UnexpectedCharacterException when encounters an unexpectedToken character type
      */
     static MetadataVersion parseBuild(String build) {
+        return parseBuild(build, false);
+    }
+
+    /**
+     * Parses the build metadata, optionally requiring it to span the whole input.
+     *
+     * @param build the build metadata string to parse
+     * @param wholeInput whether characters after the build metadata are an error
+     * @return a valid build metadata object
+     * @throws IllegalArgumentException if the input string is {@code NULL} or empty
+     * @throws ParseException when there is a grammar error
+     * @throws UnexpectedCharacterException when encounters an unexpectedToken character type
+     * @since 0.10.0
+     */
+    static MetadataVersion parseBuild(String build, boolean wholeInput) {
         VersionParser parser = new VersionParser(build);
-        return parser.parseBuild();
+        return parser.parseBuild(wholeInput);
     }
 
     /**
      * Parses the {@literal <valid semver>} non-terminal.
      *
+     * @return a valid version object
+     * @see #scanValidSemVer(CharSequence, int, int)
+     */
+    private Version parseValidSemVer() {
+        checkResult(scanValidSemVer(input, offset, end));
+        return createValidSemVer();
+    }
+
+    /**
+     * Parses the {@literal <version core>} non-terminal.
+     *
+     * @return a valid normal version object
+     * @param wholeInput whether characters after the non-terminal are an error
+     * @see #scanVersionCore(CharSequence, int, int)
+     */
+    private NormalVersion parseVersionCore(boolean wholeInput) {
+        checkResult(checkEnd(scanVersionCore(input, offset, end), wholeInput));
+        return createVersionCore();
+    }
+
+    /**
+     * Parses the {@literal <pre-release>} non-terminal.
+     *
+     * @return a valid pre-release version object
+     * @param wholeInput whether characters after the non-terminal are an error
+     * @see #scanPreRelease(CharSequence, int, int)
+     */
+    private MetadataVersion parsePreRelease(boolean wholeInput) {
+        checkResult(checkEnd(scanPreRelease(input, offset, end), wholeInput));
+        return createMetadata();
+    }
+
+    /**
+     * Parses the {@literal <build>} non-terminal.
+     *
+     * @return a valid build metadata object
+     * @param wholeInput whether characters after the non-terminal are an error
+     * @see #scanBuild(CharSequence, int, int)
+     */
+    private MetadataVersion parseBuild(boolean wholeInput) {
+        checkResult(checkEnd(scanBuild(input, offset, end), wholeInput));
+        return createMetadata();
+    }
+
+    /**
+     * Checks that a successful scan has reached the end of the input.
+     *
+     * @param result the scan result
+     * @param wholeInput whether the scan has to reach the end of the input
+     * @return the scan result or a failure if there is input left
+     */
+    private long checkEnd(long result, boolean wholeInput) {
+        if (wholeInput && result >= 0 && result < end) {
+            return failure(ScanError.UNEXPECTED_BEFORE_END, (int) result);
+        }
+        return result;
+    }
+
+    /**
+     * Scans the {@literal <valid semver>} non-terminal.
+     *
      * <pre>
      * {@literal
      * <valid semver> ::= <version core>
@@ -250,29 +552,51 @@ class VersionParser implements Parser<Version> {
      * }
      * </pre>
      *
-     * @return a valid version object
+     * @param input the input to scan
+     * @param index the index of the first character to scan
+     * @param end the index after the last character to scan
+     * @return the index after the version or a negative error code
      */
-    private Version parseValidSemVer() {
-        NormalVersion normal = parseVersionCore();
-        MetadataVersion preRelease = MetadataVersion.NULL;
-        MetadataVersion build = MetadataVersion.NULL;
-
-        Character next = consumeNextCharacter(HYPHEN, PLUS, EOI);
-        if (HYPHEN.isMatchedBy(next)) {
-            preRelease = parsePreRelease();
-            next = consumeNextCharacter(PLUS, EOI);
-            if (PLUS.isMatchedBy(next)) {
-                build = parseBuild();
+    private static long scanValidSemVer(CharSequence input, int index, int end) {
+        long result = scanVersionCore(input, index, end);
+        if (result < 0) {
+            return result;
+        }
+        index = (int) result;
+        CharType next = typeAt(input, index, end);
+        if (next == HYPHEN) {
+            result = scanPreRelease(input, index + 1, end);
+            if (result < 0) {
+                return result;
+            }
+            index = (int) result;
+            next = typeAt(input, index, end);
+            if (next == PLUS) {
+                result = scanBuild(input, index + 1, end);
+                if (result < 0) {
+                    return result;
+                }
+                index = (int) result;
+            } else if (next != EOI) {
+                return failure(ScanError.UNEXPECTED_AFTER_PRE_RELEASE, index);
+            }
+        } else if (next == PLUS) {
+            result = scanBuild(input, index + 1, end);
+            if (result < 0) {
+                return result;
             }
-        } else if (PLUS.isMatchedBy(next)) {
-            build = parseBuild();
+            index = (int) result;
+        } else if (next != EOI) {
+            return failure(ScanError.UNEXPECTED_AFTER_VERSION_CORE, index);
+        }
+        if (index < end) {
+            return failure(ScanError.UNEXPECTED_BEFORE_END, index);
         }
-        consumeNextCharacter(EOI);
-        return new Version(normal, preRelease, build);
+        return index;
     }
 
     /**
-     * Parses the {@literal <version core>} non-terminal.
+     * Scans the {@literal <version core>} non-terminal.
      *
      * <pre>
      * {@literal
@@ -282,25 +606,30 @@ class VersionParser implements Parser<Version> {
      * }
      * </pre>
      *
-     * @return a valid normal version object
+     * @param input the input to scan
+     * @param index the index of the first character to scan
+     * @param end the index after the last character to scan
+     * @return the index after the version core or a negative error code
      */
-    private NormalVersion parseVersionCore() {
-        int major = Integer.parseInt(numericIdentifier());
-        if(chars.positiveLookahead(DOT)) {
-            consumeNextCharacter(DOT);
-            int minor = Integer.parseInt(numericIdentifier());
-            if(chars.positiveLookahead(DOT)) {
-                consumeNextCharacter(DOT);
-                int patch = Integer.parseInt(numericIdentifier());
-                return new NormalVersion(major, minor, patch);
+    private static long scanVersionCore(CharSequence input, int index, int end) {
+        for (int i = 0; i < 3; i++) {
+            if (i > 0) {
+                if (typeAt(input, index, end) != DOT) {
+                    break;
+                }
+                index++;
             }
-            return new NormalVersion(major, minor);
+            long result = scanNumericIdentifier(input, index, end, true);
+            if (result < 0) {
+                return result;
+            }
+            index = (int) result;
         }
-        return new NormalVersion(major);
+        return index;
     }
 
     /**
-     * Parses the {@literal <pre-release>} non-terminal.
+     * Scans the {@literal <pre-release>} non-terminal.
      *
      * <pre>
      * {@literal
@@ -308,49 +637,43 @@ class VersionParser implements Parser<Version> {
      *
      * <dot-separated pre-release identifiers> ::= <pre-release identifier>
      *    | <pre-release identifier> "." <dot-separated pre-release identifiers>
+     *
+     * <pre-release identifier> ::= <alphanumeric identifier>
+     *                            | <numeric identifier>
      * }
      * </pre>
      *
-     * @return a valid pre-release version object
+     * @param input the input to scan
+     * @param index the index of the first character to scan
+     * @param end the index after the last character to scan
+     * @return the index after the pre-release version or a negative error code
      */
-    private MetadataVersion parsePreRelease() {
-        ensureValidLookahead(DIGIT, LETTER, HYPHEN);
-        List<String> idents = new ArrayList<String>();
+    private static long scanPreRelease(CharSequence input, int index, int end) {
+        if (!isIdentifierCharacter(typeAt(input, index, end))) {
+            return failure(ScanError.UNEXPECTED_NON_IDENTIFIER, index);
+        }
         do {
-            idents.add(preReleaseIdentifier());
-            if (chars.positiveLookahead(DOT)) {
-                consumeNextCharacter(DOT);
+            if (isIdentifierBoundary(typeAt(input, index, end))) {
+                return failure(ScanError.EMPTY_IDENTIFIER, index);
+            }
+            long result = isAlphanumericIdentifier(input, index, end, true)
+                ? scanAlphanumericIdentifier(input, index, end)
+                : scanNumericIdentifier(input, index, end, false);
+            if (result < 0) {
+                return result;
+            }
+            index = (int) result;
+            if (typeAt(input, index, end) == DOT) {
+                index++;
                 continue;
             }
             break;
         } while (true);
-        return new MetadataVersion(idents.toArray(new String[idents.size()]));
+        return index;
     }
 
     /**
-     * Parses the {@literal <pre-release identifier>} non-terminal.
-     *
-     * <pre>
-     * {@literal
-     * <pre-release identifier> ::= <alphanumeric identifier>
-     *                            | <numeric identifier>
-     * }
-     * </pre>
-     *
-     * @return a single pre-release identifier
-     */
-    private String preReleaseIdentifier() {
-        checkForEmptyIdentifier();
-        CharType boundary = nearestCharType(DOT, PLUS, EOI);
-        if (chars.positiveLookaheadBefore(boundary, LETTER, HYPHEN)) {
-            return alphanumericIdentifier();
-        } else {
-            return numericIdentifier();
-        }
-    }
-
-    /**
-     * Parses the {@literal <build>} non-terminal.
+     * Scans the {@literal <build>} non-terminal.
      *
      * <pre>
      * {@literal
@@ -358,187 +681,366 @@ class VersionParser implements Parser<Version> {
      *
      * <dot-separated build identifiers> ::= <build identifier>
      *                | <build identifier> "." <dot-separated build identifiers>
+     *
+     * <build identifier> ::= <alphanumeric identifier>
+     *                      | <digits>
      * }
      * </pre>
      *
-     * @return a valid build metadata object
+     * @param input the input to scan
+     * @param index the index of the first character to scan
+     * @param end the index after the last character to scan
+     * @return the index after the build metadata or a negative error code
      */
-    private MetadataVersion parseBuild() {
-        ensureValidLookahead(DIGIT, LETTER, HYPHEN);
-        List<String> idents = new ArrayList<String>();
+    private static long scanBuild(CharSequence input, int index, int end) {
+        if (!isIdentifierCharacter(typeAt(input, index, end))) {
+            return failure(ScanError.UNEXPECTED_NON_IDENTIFIER, index);
+        }
         do {
-            idents.add(buildIdentifier());
-            if (chars.positiveLookahead(DOT)) {
-                consumeNextCharacter(DOT);
+            if (isIdentifierBoundary(typeAt(input, index, end))) {
+                return failure(ScanError.EMPTY_IDENTIFIER, index);
+            }
+            long result = isAlphanumericIdentifier(input, index, end, false)
+                ? scanAlphanumericIdentifier(input, index, end)
+                : scanDigits(input, index, end);
+            if (result < 0) {
+                return result;
+            }
+            index = (int) result;
+            if (typeAt(input, index, end) == DOT) {
+                index++;
                 continue;
             }
             break;
         } while (true);
-        return new MetadataVersion(idents.toArray(new String[idents.size()]));
+        return index;
     }
 
     /**
-     * Parses the {@literal <build identifier>} non-terminal.
+     * Scans the {@literal <numeric identifier>} non-terminal.
      *
      * <pre>
      * {@literal
-     * <build identifier> ::= <alphanumeric identifier>
-     *                      | <digits>
+     * <numeric identifier> ::= "0"
+     *                        | <positive digit>
+     *                        | <positive digit> <digits>
      * }
      * </pre>
      *
-     * @return a single build identifier
+     * @param input the input to scan
+     * @param index the index of the first character to scan
+     * @param end the index after the last character to scan
+     * @param bounded whether the value has to fit into an {@code int}
+     * @return the index after the identifier or a negative error code
      */
-    private String buildIdentifier() {
-        checkForEmptyIdentifier();
-        CharType boundary = nearestCharType(DOT, EOI);
-        if (chars.positiveLookaheadBefore(boundary, LETTER, HYPHEN)) {
-            return alphanumericIdentifier();
-        } else {
-            return digits();
+    private static long scanNumericIdentifier(
+        CharSequence input,
+        int index,
+        int end,
+        boolean bounded
+    ) {
+        if (index < end && input.charAt(index) == '0' && typeAt(input, index + 1, end) == DIGIT) {
+            return failure(ScanError.LEADING_ZEROES, index);
+        }
+        long result = scanDigits(input, index, end);
+        if (bounded && result >= 0 && (int) result - index > 9) {
+            long value = 0;
+            for (int i = index; i < result; i++) {
+                value = value * 10 + input.charAt(i) - '0';
+                if (value > Integer.MAX_VALUE) {
+                    return failure(ScanError.NUMBER_OVERFLOW, index);
+                }
+            }
         }
+        return result;
     }
 
     /**
-     * Parses the {@literal <numeric identifier>} non-terminal.
+     * Scans the {@literal <alphanumeric identifier>} non-terminal.
      *
      * <pre>
      * {@literal
-     * <numeric identifier> ::= "0"
-     *                        | <positive digit>
-     *                        | <positive digit> <digits>
+     * <alphanumeric identifier> ::= <non-digit>
+     *             | <non-digit> <identifier characters>
+     *             | <identifier characters> <non-digit>
+     *             | <identifier characters> <non-digit> <identifier characters>
      * }
      * </pre>
      *
-     * @return a string representing the numeric identifier
+     * @param input the input to scan
+     * @param index the index of the first character to scan
+     * @param end the index after the last character to scan
+     * @return the index after the identifier or a negative error code
      */
-    private String numericIdentifier() {
-        checkForLeadingZeroes();
-        return digits();
+    private static long scanAlphanumericIdentifier(CharSequence input, int index, int end) {
+        if (!isIdentifierCharacter(typeAt(input, index, end))) {
+            return failure(ScanError.UNEXPECTED_NON_IDENTIFIER, index);
+        }
+        do {
+            index++;
+        } while (isIdentifierCharacter(typeAt(input, index, end)));
+        return index;
     }
 
     /**
-     * Parses the {@literal <alphanumeric identifier>} non-terminal.
+     * Scans the {@literal <digits>} non-terminal.
      *
      * <pre>
      * {@literal
-     * <alphanumeric identifier> ::= <non-digit>
-     *             | <non-digit> <identifier characters>
-     *             | <identifier characters> <non-digit>
-     *             | <identifier characters> <non-digit> <identifier characters>
+     * <digits> ::= <digit>
+     *            | <digit> <digits>
      * }
      * </pre>
      *
-     * @return a string representing the alphanumeric identifier
+     * @param input the input to scan
+     * @param index the index of the first character to scan
+     * @param end the index after the last character to scan
+     * @return the index after the digits or a negative error code
      */
-    private String alphanumericIdentifier() {
-        StringBuilder sb = new StringBuilder();
+    private static long scanDigits(CharSequence input, int index, int end) {
+        if (typeAt(input, index, end) != DIGIT) {
+            return failure(ScanError.UNEXPECTED_NON_DIGIT, index);
+        }
         do {
-            sb.append(consumeNextCharacter(DIGIT, LETTER, HYPHEN));
-        } while (chars.positiveLookahead(DIGIT, LETTER, HYPHEN));
-        return sb.toString();
+            index++;
+        } while (typeAt(input, index, end) == DIGIT);
+        return index;
     }
 
     /**
-     * Parses the {@literal <digits>} non-terminal.
+     * Checks if the next identifier contains a letter or a hyphen.
+     *
+     * The identifier is considered to end at the nearest dot or, in case
+     * of a pre-release identifier, at the nearest plus sign.
+     *
+     * @param input the input to check
+     * @param index the index of the first character of the identifier
+     * @param end the index after the last character of the input
+     * @param preRelease whether the identifier is a pre-release identifier
+     * @return {@code true} if the identifier is alphanumeric
+     *         or {@code false} otherwise
+     */
+    private static boolean isAlphanumericIdentifier(
+        CharSequence input,
+        int index,
+        int end,
+        boolean preRelease
+    ) {
+        for (int i = index; i < end; i++) {
+            CharType type = CharType.forChar(input.charAt(i));
+            if (type == DOT || preRelease && type == PLUS) {
+                break;
+            }
+            if (type == LETTER || type == HYPHEN) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if a character of the specified type may be part of an identifier.
+     *
+     * @param type the character type to check
+     * @return {@code true} if the type is a digit, a letter or a hyphen
+     */
+    private static boolean isIdentifierCharacter(CharType type) {
+        return type == DIGIT || type == LETTER || type == HYPHEN;
+    }
+
+    /**
+     * Checks if a character of the specified type terminates an identifier.
+     *
+     * @param type the character type to check
+     * @return {@code true} if the type is a dot, a plus sign or the end of input
+     */
+    private static boolean isIdentifierBoundary(CharType type) {
+        return type == DOT || type == PLUS || type == EOI;
+    }
+
+    /**
+     * Returns the type of the character at the specified index.
+     *
+     * @param input the input containing the character
+     * @param index the index of the character
+     * @param end the index after the last character of the input
+     * @return the type of the character or {@code EOI} past the end of input
+     */
+    private static CharType typeAt(CharSequence input, int index, int end) {
+        return index < end ? CharType.forChar(input.charAt(index)) : EOI;
+    }
+
+    /**
+     * Encodes a scan error into a negative result of a scanning method.
+     *
+     * @param error the detected error
+     * @param index the index of the character where the error was detected
+     * @return the negative error code
+     */
+    private static long failure(ScanError error, int index) {
+        return ~(((long) error.ordinal() << 32) | index);
+    }
+
+    /**
+     * Creates a {@code Version} instance from the scanned input.
      *
      * <pre>
      * {@literal
-     * <digits> ::= <digit>
-     *            | <digit> <digits>
+     * <valid semver> ::= <version core>
+     *                  | <version core> "-" <pre-release>
+     *                  | <version core> "+" <build>
+     *                  | <version core> "-" <pre-release> "+" <build>
      * }
      * </pre>
      *
-     * @return a string representing the digits
+     * @return a valid version object
      */
-    private String digits() {
-        StringBuilder sb = new StringBuilder();
-        do {
-            sb.append(consumeNextCharacter(DIGIT));
-        } while (chars.positiveLookahead(DIGIT));
-        return sb.toString();
+    private Version createValidSemVer() {
+        int major = createNumber();
+        int minor = 0;
+        int patch = 0;
+        if (lookahead() == DOT) {
+            offset++;
+            minor = createNumber();
+            if (lookahead() == DOT) {
+                offset++;
+                patch = createNumber();
+            }
+        }
+        MetadataVersion preRelease = MetadataVersion.NULL;
+        MetadataVersion build = MetadataVersion.NULL;
+        if (lookahead() == HYPHEN) {
+            offset++;
+            preRelease = createMetadata();
+        }
+        if (lookahead() == PLUS) {
+            offset++;
+            build = createMetadata();
+        }
+        return new Version(major, minor, patch, preRelease, build);
     }
 
     /**
-     * Finds the nearest character type.
+     * Creates a {@code NormalVersion} instance from the scanned input.
      *
-     * @param types the character types to choose from
-     * @return the nearest character type or {@code EOI}
+     * @return a valid normal version object
      */
-    private CharType nearestCharType(CharType... types) {
-        for (Character chr : chars) {
-            for (CharType type : types) {
-                if (type.isMatchedBy(chr)) {
-                    return type;
-                }
+    private NormalVersion createVersionCore() {
+        int major = createNumber();
+        if (lookahead() == DOT) {
+            offset++;
+            int minor = createNumber();
+            if (lookahead() == DOT) {
+                offset++;
+                int patch = createNumber();
+                return new NormalVersion(major, minor, patch);
             }
+            return new NormalVersion(major, minor);
         }
-        return EOI;
+        return new NormalVersion(major);
     }
 
     /**
-     * Checks for leading zeroes in the numeric identifiers.
+     * Creates a {@code MetadataVersion} instance from the scanned input.
      *
-     * @throws ParseException if a numeric identifier has leading zero(es)
+     * @return a valid pre-release version or build metadata object
      */
-    private void checkForLeadingZeroes() {
-        Character la1 = chars.lookahead(1);
-        Character la2 = chars.lookahead(2);
-        if (la1 != null && la1 == '0' && DIGIT.isMatchedBy(la2)) {
-            throw new ParseException(
-                "Numeric identifier MUST NOT contain leading zeroes"
-            );
+    private MetadataVersion createMetadata() {
+        int count = 1;
+        for (int i = offset; i < end; i++) {
+            CharType type = CharType.forChar(input.charAt(i));
+            if (type == DOT) {
+                count++;
+            } else if (!isIdentifierCharacter(type)) {
+                break;
+            }
         }
+        String[] idents = new String[count];
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                offset++;
+            }
+            int from = offset;
+            while (isIdentifierCharacter(lookahead())) {
+                offset++;
+            }
+            idents[i] = input.subSequence(from, offset).toString();
+        }
+        return new MetadataVersion(idents);
     }
 
     /**
-     * Checks for empty identifiers in the pre-release version or build metadata.
+     * Creates the value of a scanned numeric identifier.
      *
-     * @throws ParseException if the pre-release version or build
-     *                        metadata have empty identifier(s)
+     * @return the value of the numeric identifier
      */
-    private void checkForEmptyIdentifier() {
-        Character la = chars.lookahead(1);
-        if (DOT.isMatchedBy(la) || PLUS.isMatchedBy(la) || EOI.isMatchedBy(la)) {
-            throw new ParseException(
-                "Identifiers MUST NOT be empty",
-                new UnexpectedCharacterException(
-                    la,
-                    chars.currentOffset(),
-                    DIGIT, LETTER, HYPHEN
-                )
-            );
+    private int createNumber() {
+        int value = 0;
+        while (lookahead() == DIGIT) {
+            value = value * 10 + input.charAt(offset++) - '0';
         }
+        return value;
     }
 
     /**
-     * Tries to consume the next character in the stream.
+     * Returns the type of the next character without consuming it.
      *
-     * @param expected the expected types of the next character
-     * @return the next character in the stream
+     * @return the type of the next character
+     */
+    private CharType lookahead() {
+        return typeAt(input, offset, end);
+    }
+
+    /**
+     * Checks the result of a scanning method.
+     *
+     * @param result the result of the scanning method
+     * @throws ParseException when there is a grammar error
      * @throws UnexpectedCharacterException when encounters an unexpectedToken character type
+     * @throws NumberFormatException if a numeric identifier does not fit into an {@code int}
      */
-    private Character consumeNextCharacter(CharType... expected) {
-        try {
-            return chars.consume(expected);
-        } catch (UnexpectedElementException e) {
-            throw new UnexpectedCharacterException(e);
+    private void checkResult(long result) {
+        if (result >= 0) {
+            return;
+        }
+        ScanError error = ScanError.VALUES[(int) (~result >>> 32)];
+        int index = (int) ~result;
+        switch (error) {
+            case LEADING_ZEROES:
+                throw new ParseException(
+                    "Numeric identifier MUST NOT contain leading zeroes"
+                );
+            case EMPTY_IDENTIFIER:
+                throw new ParseException(
+                    "Identifiers MUST NOT be empty",
+                    unexpectedCharacter(index, error)
+                );
+            case NUMBER_OVERFLOW:
+                int to = index;
+                while (typeAt(input, to, end) == DIGIT) {
+                    to++;
+                }
+                throw new NumberFormatException(
+                    "For input string: \"" + input.subSequence(index, to) + "\""
+                );
+            default:
+                throw unexpectedCharacter(index, error);
         }
     }
 
     /**
-     * Checks if the next character in the stream is valid.
+     * Creates an exception for the character at the specified index.
      *
-     * @param expected the expected types of the next character
-     * @throws UnexpectedCharacterException if the next character is not valid
+     * @param index the index of the unexpected character
+     * @param error the detected error
+     * @return an exception describing the unexpected character
      */
-    private void ensureValidLookahead(CharType... expected) {
-        if (!chars.positiveLookahead(expected)) {
-            throw new UnexpectedCharacterException(
-                chars.lookahead(1),
-                chars.currentOffset(),
-                expected
-            );
-        }
+    private UnexpectedCharacterException unexpectedCharacter(int index, ScanError error) {
+        Character unexpected = index < end ? input.charAt(index) : null;
+        return new UnexpectedCharacterException(
+            unexpected,
+            index - start,
+            error.expected.clone()
+        );
     }
 }
@@ -0,0 +1,379 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2012-2016 Zafar Khaja <zafarkhaja@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.zafarkhaja.semver;
+
+import com.github.zafarkhaja.semver.util.BoundedCache;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A thread-safe pool of canonical {@code Version} instances.
+ *
+ * The pool maps every version to a canonical instance shared by all the
+ * versions that are equal and have the same build metadata, so that the
+ * duplicates can be released and compared by reference. There are two
+ * kinds of pools:
+ * <ul>
+ * <li>a weak pool retains the canonical instances only as long as they
+ *     are referenced elsewhere, see {@link #weak()}</li>
+ * <li>a bounded pool retains up to a fixed number of the recently used
+ *     canonical instances, see {@link #bounded(int)}</li>
+ * </ul>
+ *
+ * The global pool used by {@link Version#intern()} is a weak pool
+ * by default.
+ *
+ * @author Zafar Khaja &lt;zafarkhaja@gmail.com&gt;
+ * @since 0.10.0
+ */
+public abstract class VersionPool {
+
+    /**
+     * The pool used by {@code Version.intern()}.
+     */
+    private static volatile VersionPool global = weak();
+
+    /**
+     * A key comparing the versions by {@code Version.isIdenticalTo}.
+     */
+    private abstract static class Key {
+
+        /**
+         * The hash code of the version.
+         */
+        private final int hash;
+
+        /**
+         * Constructs a key with the hash code of the version.
+         *
+         * @param hash the hash code of the version
+         */
+        Key(int hash) {
+            this.hash = hash;
+        }
+
+        /**
+         * Returns the version of this key.
+         *
+         * @return the version or {@code null} if it has been collected
+         */
+        abstract Version version();
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof Key) || hash != ((Key) other).hash) {
+                return false;
+            }
+            Version version = version();
+            Version otherVersion = ((Key) other).version();
+            return version != null
+                && otherVersion != null
+                && version.isIdenticalTo(otherVersion);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * A key holding its version strongly.
+     */
+    private static class StrongKey extends Key {
+
+        /**
+         * The version of this key.
+         */
+        private final Version version;
+
+        /**
+         * Constructs a key for the version.
+         *
+         * @param version the version of the key
+         */
+        StrongKey(Version version) {
+            super(version.identityHash());
+            this.version = version;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        Version version() {
+            return version;
+        }
+    }
+
+    /**
+     * A key holding its version weakly.
+     */
+    private static class WeakKey extends Key {
+
+        /**
+         * The weak reference to the version of this key.
+         */
+        private final Reference<Version> reference;
+
+        /**
+         * Constructs a key for the version registering
+         * its reference with the queue.
+         *
+         * @param version the version of the key
+         * @param queue the queue to register the reference with
+         */
+        WeakKey(Version version, ReferenceQueue<Version> queue) {
+            super(version.identityHash());
+            this.reference = new KeyReference(version, queue, this);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        Version version() {
+            return reference.get();
+        }
+    }
+
+    /**
+     * A weak reference remembering the key it belongs to.
+     */
+    private static class KeyReference extends WeakReference<Version> {
+
+        /**
+         * The key the reference belongs to.
+         */
+        private final WeakKey key;
+
+        /**
+         * Constructs a reference to the version of the key.
+         *
+         * @param version the version to refer to
+         * @param queue the queue to register the reference with
+         * @param key the key the reference belongs to
+         */
+        KeyReference(Version version, ReferenceQueue<Version> queue, WeakKey key) {
+            super(version, queue);
+            this.key = key;
+        }
+    }
+
+    /**
+     * A pool retaining its versions weakly.
+     */
+    private static class WeakPool extends VersionPool {
+
+        /**
+         * The canonical versions, every key maps to itself.
+         */
+        private final ConcurrentHashMap<Key, WeakKey> map = new ConcurrentHashMap<>();
+
+        /**
+         * The queue of the references to the collected versions.
+         */
+        private final ReferenceQueue<Version> queue = new ReferenceQueue<>();
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Version intern(Version version) {
+            expungeCollected();
+            Key probe = new StrongKey(version);
+            while (true) {
+                WeakKey existing = map.get(probe);
+                if (existing != null) {
+                    Version canonical = existing.version();
+                    if (canonical != null) {
+                        return canonical;
+                    }
+                    map.remove(existing, existing);
+                    continue;
+                }
+                WeakKey key = new WeakKey(version, queue);
+                if (map.putIfAbsent(key, key) == null) {
+                    return version;
+                }
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int size() {
+            expungeCollected();
+            return map.size();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void clear() {
+            map.clear();
+            expungeCollected();
+        }
+
+        /**
+         * Removes the keys of the collected versions.
+         */
+        private void expungeCollected() {
+            Reference<? extends Version> reference;
+            while ((reference = queue.poll()) != null) {
+                WeakKey key = ((KeyReference) reference).key;
+                map.remove(key, key);
+            }
+        }
+    }
+
+    /**
+     * A pool retaining a bounded number of versions.
+     */
+    private static class BoundedPool extends VersionPool {
+
+        /**
+         * The canonical versions.
+         */
+        private final BoundedCache<Key, Version> cache;
+
+        /**
+         * Constructs a pool holding up to the specified number of versions.
+         *
+         * @param maxSize the maximum number of versions
+         */
+        BoundedPool(int maxSize) {
+            this.cache = new BoundedCache<>(maxSize);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Version intern(Version version) {
+            return cache.get(new StrongKey(version), key -> version);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int size() {
+            return cache.size();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void clear() {
+            cache.clear();
+        }
+    }
+
+    /**
+     * Constructs a {@code VersionPool} instance, for the subclasses only.
+     */
+    VersionPool() {}
+
+    /**
+     * Creates a pool retaining the canonical versions only as long
+     * as they are strongly referenced outside of the pool.
+     *
+     * @return a new weak pool
+     */
+    public static VersionPool weak() {
+        return new WeakPool();
+    }
+
+    /**
+     * Creates a pool retaining up to the specified number of the
+     * canonical versions, evicting the least recently used ones.
+     *
+     * @param maxSize the maximum number of the canonical versions
+     * @return a new bounded pool
+     * @throws IllegalArgumentException if the maximum size is not positive
+     */
+    public static VersionPool bounded(int maxSize) {
+        return new BoundedPool(maxSize);
+    }
+
+    /**
+     * Returns the pool used by {@link Version#intern()}.
+     *
+     * @return the global pool
+     */
+    public static VersionPool global() {
+        return global;
+    }
+
+    /**
+     * Installs the pool to be used by {@link Version#intern()}.
+     *
+     * @param pool the pool to install
+     * @throws IllegalArgumentException if the pool is {@code NULL}
+     */
+    public static void setGlobal(VersionPool pool) {
+        if (pool == null) {
+            throw new IllegalArgumentException("Version pool MUST NOT be NULL");
+        }
+        global = pool;
+    }
+
+    /**
+     * Returns the canonical instance of the specified version.
+     *
+     * If the pool holds no version identical to the specified one,
+     * the specified version becomes the canonical instance.
+     *
+     * @param version the version to intern
+     * @return the canonical instance of the version
+     */
+    public abstract Version intern(Version version);
+
+    /**
+     * Returns the number of the canonical versions held by this pool.
+     *
+     * @return the number of the canonical versions
+     */
+    public abstract int size();
+
+    /**
+     * Removes all the canonical versions from this pool.
+     */
+    public abstract void clear();
+}
@@ -0,0 +1,388 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2012-2016 Zafar Khaja <zafarkhaja@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.zafarkhaja.semver.compiling;
+
+import java.util.Arrays;
+
+/**
+ * A flyweight buffer of tokens.
+ *
+ * The tokens are stored in parallel primitive arrays holding the ordinal
+ * of the token type and the start and end offsets of the lexeme in the
+ * input string, so that no object is created per token. The lexemes are
+ * only materialized on demand, e.g. for error messages.
+ *
+ * A buffer with a {@link TokenSource} is filled lazily, the tokens are
+ * pulled from the source as the reader looks ahead, so any method
+ * reading past the scanned tokens may throw a {@link LexerException}.
+ *
+ * The buffer also keeps the current offset of its reader, similar to
+ * {@link com.github.zafarkhaja.semver.util.Stream}.
+ *
+ * @param <E> the enum of the token types
+ * @author Zafar Khaja &lt;zafarkhaja@gmail.com&gt;
+ * @since 0.10.0
+ */
+public final class TokenBuffer<E extends Enum<E>> {
+
+    /**
+     * The initial capacity of the arrays.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * The input string the tokens refer to.
+     */
+    private final String input;
+
+    /**
+     * The token types indexed by their ordinals.
+     */
+    private final E[] values;
+
+    /**
+     * The source to pull the tokens from, if any.
+     */
+    private final TokenSource<E> source;
+
+    /**
+     * Whether the source has no more tokens.
+     */
+    private boolean exhausted;
+
+    /**
+     * The ordinals of the token types.
+     */
+    private int[] types;
+
+    /**
+     * The start offsets of the lexemes.
+     */
+    private int[] starts;
+
+    /**
+     * The end offsets of the lexemes.
+     */
+    private int[] ends;
+
+    /**
+     * The number of tokens in this buffer.
+     */
+    private int size;
+
+    /**
+     * The index of the next token to consume.
+     */
+    private int offset;
+
+    /**
+     * Constructs an empty {@code TokenBuffer} instance for the input,
+     * which is filled by the {@code add} method.
+     *
+     * @param input the input string the tokens refer to
+     * @param values the token types indexed by their ordinals
+     */
+    public TokenBuffer(String input, E[] values) {
+        this(input, values, null);
+    }
+
+    /**
+     * Constructs a {@code TokenBuffer} instance for the input,
+     * which is filled lazily from the token source.
+     *
+     * @param input the input string the tokens refer to
+     * @param values the token types indexed by their ordinals
+     * @param source the source to pull the tokens from
+     */
+    public TokenBuffer(String input, E[] values, TokenSource<E> source) {
+        this.input = input;
+        this.values = values;
+        this.source = source;
+        this.exhausted = source == null;
+        this.types = new int[INITIAL_CAPACITY];
+        this.starts = new int[INITIAL_CAPACITY];
+        this.ends = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Appends a token to this buffer.
+     *
+     * @param type the type of the token
+     * @param start the start offset of the lexeme
+     * @param end the end offset of the lexeme
+     */
+    public void add(E type, int start, int end) {
+        if (size == types.length) {
+            int capacity = size << 1;
+            types = Arrays.copyOf(types, capacity);
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+        }
+        types[size] = type.ordinal();
+        starts[size] = start;
+        ends[size] = end;
+        size++;
+    }
+
+    /**
+     * Returns the input string the tokens refer to.
+     *
+     * @return the input string
+     */
+    public String input() {
+        return input;
+    }
+
+    /**
+     * Returns the number of tokens scanned into this buffer so far.
+     *
+     * @return the number of tokens
+     * @see #has(int)
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if there is a token at the index, pulling
+     * the tokens from the source if necessary.
+     *
+     * @param index the index of the token
+     * @return {@code true} if there is a token at the index
+     * @throws LexerException when the source encounters an illegal character
+     */
+    public boolean has(int index) {
+        while (index >= size && !exhausted) {
+            exhausted = !source.scanNext(this);
+        }
+        return index >= 0 && index < size;
+    }
+
+    /**
+     * Returns the type of the token.
+     *
+     * @param index the index of the token
+     * @return the type of the token
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     */
+    public E type(int index) {
+        has(index);
+        return values[types[checkIndex(index)]];
+    }
+
+    /**
+     * Returns the start offset of the lexeme, which
+     * is also the position of the token.
+     *
+     * @param index the index of the token
+     * @return the start offset of the lexeme
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     */
+    public int start(int index) {
+        return starts[checkIndex(index)];
+    }
+
+    /**
+     * Returns the end offset of the lexeme.
+     *
+     * @param index the index of the token
+     * @return the end offset of the lexeme
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     */
+    public int end(int index) {
+        return ends[checkIndex(index)];
+    }
+
+    /**
+     * Materializes the lexeme of the token.
+     *
+     * @param index the index of the token
+     * @return the lexeme of the token
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     */
+    public String lexeme(int index) {
+        return input.substring(start(index), ends[index]);
+    }
+
+    /**
+     * Materializes the concatenated lexemes of a range of tokens.
+     *
+     * If the tokens are adjacent in the input, the lexemes are
+     * returned as a single substring of the input.
+     *
+     * @param from the index of the first token
+     * @param to the index after the last token
+     * @return the concatenated lexemes
+     * @throws IndexOutOfBoundsException if the range is out of bounds
+     */
+    public String lexemes(int from, int to) {
+        if (from == to) {
+            return "";
+        }
+        checkIndex(to - 1);
+        for (int i = checkIndex(from) + 1; i < to; i++) {
+            if (starts[i] != ends[i - 1]) {
+                StringBuilder sb = new StringBuilder();
+                for (int j = from; j < to; j++) {
+                    sb.append(input, starts[j], ends[j]);
+                }
+                return sb.toString();
+            }
+        }
+        return input.substring(starts[from], ends[to - 1]);
+    }
+
+    /**
+     * Materializes the lexemes of a range of tokens split by a separator.
+     *
+     * Each element of the result holds the concatenated lexemes
+     * of the tokens between two separators, as returned by
+     * {@link #lexemes(int, int)}, so empty elements are kept.
+     *
+     * @param from the index of the first token
+     * @param to the index after the last token
+     * @param separator the type of the separating tokens
+     * @return the lexemes between the separators
+     *         or {@code null} if the range is empty
+     * @throws IndexOutOfBoundsException if the range is out of bounds
+     * @since 0.10.0
+     */
+    public String[] split(int from, int to, E separator) {
+        if (from == to) {
+            return null;
+        }
+        int ordinal = separator.ordinal();
+        int count = 1;
+        for (int i = from; i < to; i++) {
+            if (types[checkIndex(i)] == ordinal) {
+                count++;
+            }
+        }
+        String[] parts = new String[count];
+        int start = from;
+        int part = 0;
+        for (int i = from; i < to; i++) {
+            if (types[i] == ordinal) {
+                parts[part++] = lexemes(start, i);
+                start = i + 1;
+            }
+        }
+        parts[part] = lexemes(start, to);
+        return parts;
+    }
+
+    /**
+     * Parses the lexeme of the token as a decimal integer
+     * without materializing it.
+     *
+     * @param index the index of the token
+     * @return the integer value of the lexeme
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     * @throws NumberFormatException if the lexeme is not a valid {@code int},
+     *         as thrown by {@link Integer#parseInt(String)}
+     */
+    public int parseInt(int index) {
+        int start = start(index);
+        int end = ends[index];
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = input.charAt(i) - '0';
+            if (digit < 0 || digit > 9 || value > (Integer.MAX_VALUE - digit) / 10) {
+                return Integer.parseInt(lexeme(index));
+            }
+            value = value * 10 + digit;
+        }
+        if (start == end) {
+            return Integer.parseInt("");
+        }
+        return value;
+    }
+
+    /**
+     * Returns the index of the next token to consume.
+     *
+     * @return the current offset of the reader
+     */
+    public int offset() {
+        return offset;
+    }
+
+    /**
+     * Returns the type of the next token without consuming it.
+     *
+     * @return the type of the next token or {@code null} if there are no tokens left
+     */
+    public E lookahead() {
+        return lookahead(1);
+    }
+
+    /**
+     * Returns the type of the token at the specified position
+     * relative to the current offset without consuming it.
+     *
+     * @param position the position of the token, starting with 1
+     * @return the type of the token or {@code null} if it is past the end
+     */
+    public E lookahead(int position) {
+        int index = offset + position - 1;
+        return has(index) ? values[types[index]] : null;
+    }
+
+    /**
+     * Checks if the next token is of the expected type.
+     *
+     * @param expected the expected type
+     * @return {@code true} if the next token is of the expected type
+     */
+    public boolean positiveLookahead(E expected) {
+        return has(offset) && types[offset] == expected.ordinal();
+    }
+
+    /**
+     * Consumes the next token.
+     *
+     * @return the index of the consumed token or
+     *         {@code -1} if there are no tokens left
+     */
+    public int consume() {
+        if (!has(offset)) {
+            return -1;
+        }
+        return offset++;
+    }
+
+    /**
+     * Checks that the index refers to a token in this buffer.
+     *
+     * @param index the index to check
+     * @return the index
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     */
+    private int checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return index;
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2012-2016 Zafar Khaja <zafarkhaja@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.zafarkhaja.semver.compiling;
+
+/**
+ * A pull-style source of tokens for a {@link TokenBuffer}.
+ *
+ * The buffer asks its source for the next token only when the reader
+ * looks past the tokens scanned so far, so the input after the point
+ * where the parser stops, e.g. on the first error, is never lexed.
+ *
+ * @param <E> the enum of the token types
+ * @author Zafar Khaja &lt;zafarkhaja@gmail.com&gt;
+ * @see Lexer
+ * @since 0.10.0
+ */
+public interface TokenSource<E extends Enum<E>> {
+
+    /**
+     * Scans the next token of the buffer's input and appends it to the buffer.
+     *
+     * The scan resumes where the last token in the buffer ends.
+     *
+     * @param tokens the buffer to append the token to
+     * @return {@code true} if a token has been appended or {@code false}
+     *         if the end-of-input token has been appended instead
+     * @throws LexerException when encounters an illegal character
+     */
+    boolean scanNext(TokenBuffer<E> tokens);
+}
@@ -26,10 +26,11 @@ package com.github.zafarkhaja.semver.expr;
 import com.github.zafarkhaja.semver.compiling.Lexer;
 import com.github.zafarkhaja.semver.compiling.Token;
 import com.github.zafarkhaja.semver.compiling.LexerException;
+import com.github.zafarkhaja.semver.compiling.TokenBuffer;
+import com.github.zafarkhaja.semver.compiling.TokenSource;
 import com.github.zafarkhaja.semver.util.Stream;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
@@ -38,7 +39,7 @@ import java.util.regex.Pattern;
  * @author Zafar Khaja &lt;zafarkhaja@gmail.com&gt;
  * @since 0.7.0
  */
-class ExprLexer extends Lexer<ExprLexer.ExprToken> {
+class ExprLexer extends Lexer<ExprLexer.ExprToken> implements TokenSource<ExprLexer.ExprToken.Type> {
 
     /**
      * This class holds the information about lexemes in the input stream.
@@ -72,6 +73,11 @@ class ExprLexer extends Lexer<ExprLexer.ExprToken> {
             WHITESPACE("\\s+"),
             EOI("?!");
 
+            /**
+             * The token types indexed by their ordinals.
+             */
+            static final Type[] VALUES = values();
+
             /**
              * A pattern matching this type.
              */
@@ -133,33 +139,182 @@ class ExprLexer extends Lexer<ExprLexer.ExprToken> {
      * @param input the input string to tokenize
      * @return a stream of tokens
      * @throws LexerException when encounters an illegal character
+     * @see #scan(String)
      */
     protected Stream<ExprToken> tokenize(String input) {
+        TokenBuffer<ExprToken.Type> buffer = scan(input);
         List<ExprToken> tokens = new ArrayList<ExprToken>();
-        int tokenPos = 0;
-        while (!input.isEmpty()) {
-            boolean matched = false;
-            for (ExprToken.Type tokenType : ExprToken.Type.values()) {
-                Matcher matcher = tokenType.pattern.matcher(input);
-                if (matcher.find()) {
-                    matched = true;
-                    input = matcher.replaceFirst("");
-                    if (tokenType != ExprToken.Type.WHITESPACE) {
-                        tokens.add(new ExprToken(
-                            tokenType,
-                            matcher.group(),
-                            tokenPos
-                        ));
+        for (int i = 0; buffer.has(i); i++) {
+            tokens.add(new ExprToken(buffer.type(i), buffer.lexeme(i), buffer.start(i)));
+        }
+        return new Stream<>(tokens.toArray(new ExprToken[tokens.size()]));
+    }
+
+    /**
+     * Creates a token buffer lazily filled from the specified input string.
+     *
+     * @param input the input string to scan
+     * @return a buffer of tokens
+     * @see #scanNext(TokenBuffer)
+     * @since 0.10.0
+     */
+    TokenBuffer<ExprToken.Type> scan(String input) {
+        return new TokenBuffer<>(input, ExprToken.Type.VALUES, this);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Each token is recognized by its first character. The result is the
+     * same as if the patterns of the token types were tried in their
+     * declaration order at every position, i.e. the longest match of the
+     * first matching type wins. The whitespaces are skipped and the last
+     * token is EOI.
+     */
+    @Override
+    public boolean scanNext(TokenBuffer<ExprToken.Type> tokens) {
+        String input = tokens.input();
+        int length = input.length();
+        int tokenPos = tokens.size() == 0 ? 0 : tokens.end(tokens.size() - 1);
+        while (tokenPos < length) {
+            int tokenEnd = tokenPos + 1;
+            ExprToken.Type tokenType;
+            char chr = input.charAt(tokenPos);
+            switch (chr) {
+                case '*': case 'x': case 'X':
+                    tokenType = ExprToken.Type.WILDCARD;
+                    break;
+                case '.':
+                    tokenType = ExprToken.Type.DOT;
+                    break;
+                case '-':
+                    tokenType = ExprToken.Type.HYPHEN;
+                    break;
+                case '+':
+                    tokenType = ExprToken.Type.PLUS;
+                    break;
+                case '=':
+                    tokenType = ExprToken.Type.EQUAL;
+                    break;
+                case '!':
+                    tokenType = ExprToken.Type.NOT;
+                    if (isNext(input, tokenEnd, '=')) {
+                        tokenType = ExprToken.Type.NOT_EQUAL;
+                        tokenEnd++;
+                    }
+                    break;
+                case '>':
+                    tokenType = ExprToken.Type.GREATER;
+                    if (isNext(input, tokenEnd, '=')) {
+                        tokenType = ExprToken.Type.GREATER_EQUAL;
+                        tokenEnd++;
+                    }
+                    break;
+                case '<':
+                    tokenType = ExprToken.Type.LESS;
+                    if (isNext(input, tokenEnd, '=')) {
+                        tokenType = ExprToken.Type.LESS_EQUAL;
+                        tokenEnd++;
                     }
-                    tokenPos += matcher.end();
                     break;
-                }
+                case '~':
+                    tokenType = ExprToken.Type.TILDE;
+                    break;
+                case '^':
+                    tokenType = ExprToken.Type.CARET;
+                    break;
+                case '&':
+                    tokenType = ExprToken.Type.AND;
+                    break;
+                case '|':
+                    tokenType = ExprToken.Type.OR;
+                    break;
+                case '(':
+                    tokenType = ExprToken.Type.LEFT_PAREN;
+                    break;
+                case ')':
+                    tokenType = ExprToken.Type.RIGHT_PAREN;
+                    break;
+                default:
+                    if (chr == '0') {
+                        tokenType = ExprToken.Type.NUMERIC;
+                    } else if (isDigit(chr)) {
+                        tokenType = ExprToken.Type.NUMERIC;
+                        while (tokenEnd < length && isDigit(input.charAt(tokenEnd))) {
+                            tokenEnd++;
+                        }
+                    } else if (isWhitespace(chr)) {
+                        tokenType = ExprToken.Type.WHITESPACE;
+                        while (tokenEnd < length && isWhitespace(input.charAt(tokenEnd))) {
+                            tokenEnd++;
+                        }
+                    } else if (Character.isLetter(input.codePointAt(tokenPos))) {
+                        tokenType = ExprToken.Type.ALPHA_NUMERIC;
+                        tokenEnd = skipLettersOrDigits(input, tokenPos);
+                    } else {
+                        throw new LexerException(input.substring(tokenPos));
+                    }
             }
-            if (!matched) {
-                throw new LexerException(input);
+            if (tokenType != ExprToken.Type.WHITESPACE) {
+                tokens.add(tokenType, tokenPos, tokenEnd);
+                return true;
             }
+            tokenPos = tokenEnd;
         }
-        tokens.add(new ExprToken(ExprToken.Type.EOI, null, tokenPos));
-        return new Stream<>(tokens.toArray(new ExprToken[tokens.size()]));
+        tokens.add(ExprToken.Type.EOI, tokenPos, tokenPos);
+        return false;
+    }
+
+    /**
+     * Checks if the character at the index is the expected one.
+     *
+     * @param input the input string
+     * @param index the index of the character
+     * @param expected the expected character
+     * @return {@code true} if the character is present and expected
+     */
+    private static boolean isNext(String input, int index, char expected) {
+        return index < input.length() && input.charAt(index) == expected;
+    }
+
+    /**
+     * Skips the letters and digits of an alphanumeric token.
+     *
+     * The letters are recognized by code points, so that
+     * supplementary characters are not split.
+     *
+     * @param input the input string
+     * @param index the index of the first letter
+     * @return the index after the last letter or digit
+     */
+    private static int skipLettersOrDigits(String input, int index) {
+        while (index < input.length()) {
+            int codePoint = input.codePointAt(index);
+            if (!Character.isLetter(codePoint) && !isDigit(codePoint)) {
+                break;
+            }
+            index += Character.charCount(codePoint);
+        }
+        return index;
+    }
+
+    /**
+     * Checks if the character is an ASCII digit, as matched by {@code \d}.
+     *
+     * @param chr the character to check
+     * @return {@code true} if the character is a digit
+     */
+    private static boolean isDigit(int chr) {
+        return chr >= '0' && chr <= '9';
+    }
+
+    /**
+     * Checks if the character is a whitespace, as matched by {@code \s}.
+     *
+     * @param chr the character to check
+     * @return {@code true} if the character is a whitespace
+     */
+    private static boolean isWhitespace(char chr) {
+        return chr == ' ' || chr >= '\t' && chr <= '\r';
     }
 }
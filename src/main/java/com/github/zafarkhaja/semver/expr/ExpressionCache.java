@@ -0,0 +1,248 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2012-2016 Zafar Khaja <zafarkhaja@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.zafarkhaja.semver.expr;
+
+import com.github.zafarkhaja.semver.ParseException;
+import com.github.zafarkhaja.semver.Version;
+import com.github.zafarkhaja.semver.util.BoundedCache;
+import java.util.function.Predicate;
+
+/**
+ * A bounded thread-safe cache of the compiled expressions.
+ *
+ * The cache maps expression strings to the predicates compiled from them,
+ * trying the JSemVer Expression dialect first and the Maven version range
+ * dialect second. The strings that are valid in neither of the dialects
+ * are cached as well, as predicates that are never satisfied. The least
+ * recently used expressions are evicted when the cache gets full.
+ *
+ * The global cache is used by {@link Version#satisfies(String)} and holds
+ * up to {@value #DEFAULT_MAX_SIZE} expressions by default. It can be
+ * replaced or disabled with {@link #setGlobal(ExpressionCache)}.
+ *
+ * @author Zafar Khaja &lt;zafarkhaja@gmail.com&gt;
+ * @since 0.10.0
+ */
+public class ExpressionCache {
+
+    /**
+     * The default maximum number of expressions held by the global cache.
+     */
+    public static final int DEFAULT_MAX_SIZE = 1024;
+
+    /**
+     * The dialects of the expression strings.
+     */
+    public static enum Dialect {
+
+        /**
+         * The JSemVer Expression, e.g. {@code ">=1.0.0 & <2.0.0"}.
+         */
+        JSEMVER,
+
+        /**
+         * The Maven version range, e.g. {@code "[1.0.0,2.0.0)"}.
+         */
+        MAVEN,
+
+        /**
+         * An expression that is valid in none of the dialects.
+         */
+        INVALID
+    }
+
+    /**
+     * A predicate compiled from an expression string.
+     *
+     * Instances of this class are immutable and can be
+     * shared between threads.
+     */
+    public static final class CompiledExpression implements Predicate<Version> {
+
+        /**
+         * The dialect the expression string is written in.
+         */
+        private final Dialect dialect;
+
+        /**
+         * The compiled predicate.
+         */
+        private final Predicate<Version> predicate;
+
+        /**
+         * Constructs a {@code CompiledExpression} instance
+         * with the dialect and the compiled predicate.
+         *
+         * @param dialect the dialect of the expression string
+         * @param predicate the compiled predicate
+         */
+        private CompiledExpression(Dialect dialect, Predicate<Version> predicate) {
+            this.dialect = dialect;
+            this.predicate = predicate;
+        }
+
+        /**
+         * Returns the dialect the expression string is written in.
+         *
+         * @return the dialect of the expression string
+         */
+        public Dialect getDialect() {
+            return dialect;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean test(Version version) {
+            return predicate.test(version);
+        }
+    }
+
+    /**
+     * The compiled expression of the invalid expression strings.
+     */
+    private static final CompiledExpression INVALID_EXPRESSION =
+        new CompiledExpression(Dialect.INVALID, version -> false);
+
+    /**
+     * The cache used by {@code Version.satisfies(String)}, if any.
+     */
+    private static volatile ExpressionCache global =
+        new ExpressionCache(DEFAULT_MAX_SIZE);
+
+    /**
+     * The underlying cache.
+     */
+    private final BoundedCache<String, CompiledExpression> cache;
+
+    /**
+     * Constructs a cache holding up to the specified number of expressions.
+     *
+     * @param maxSize the maximum number of the cached expressions
+     * @throws IllegalArgumentException if the maximum size is not positive
+     */
+    public ExpressionCache(int maxSize) {
+        this.cache = new BoundedCache<>(maxSize);
+    }
+
+    /**
+     * Returns the globally installed cache.
+     *
+     * @return the global cache or {@code null} if caching is disabled
+     */
+    public static ExpressionCache global() {
+        return global;
+    }
+
+    /**
+     * Installs the cache to be used by {@link Version#satisfies(String)}.
+     *
+     * @param cache the cache to install or {@code null} to disable caching
+     */
+    public static void setGlobal(ExpressionCache cache) {
+        global = cache;
+    }
+
+    /**
+     * Compiles the expression string without caching it.
+     *
+     * @param expr the expression string to compile
+     * @return the compiled expression, never {@code null}
+     */
+    public static CompiledExpression compile(String expr) {
+        try {
+            return new CompiledExpression(
+                Dialect.JSEMVER,
+                ExpressionParser.newInstance().parse(expr)
+            );
+        } catch (ParseException e) {
+            try {
+                return new CompiledExpression(
+                    Dialect.MAVEN,
+                    new MavenParser().parse(expr)
+                );
+            } catch (ParseException e2) {
+                return INVALID_EXPRESSION;
+            }
+        }
+    }
+
+    /**
+     * Returns the compiled expression for the specified expression
+     * string, compiling and caching it if it is not cached yet.
+     *
+     * @param expr the expression string to compile
+     * @return the cached or the newly compiled expression
+     */
+    public CompiledExpression get(String expr) {
+        if (expr == null) {
+            return compile(expr);
+        }
+        return cache.get(expr, ExpressionCache::compile);
+    }
+
+    /**
+     * Removes all the cached expressions, the statistics are kept.
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    /**
+     * Returns the number of the cached expressions.
+     *
+     * @return the number of the cached expressions
+     */
+    public int size() {
+        return cache.size();
+    }
+
+    /**
+     * Returns the maximum number of the cached expressions.
+     *
+     * @return the maximum number of the cached expressions
+     */
+    public int maxSize() {
+        return cache.maxSize();
+    }
+
+    /**
+     * Returns the number of the lookups that found a cached expression.
+     *
+     * @return the number of cache hits
+     */
+    public long hitCount() {
+        return cache.hitCount();
+    }
+
+    /**
+     * Returns the number of the lookups that didn't find a cached expression.
+     *
+     * @return the number of cache misses
+     */
+    public long missCount() {
+        return cache.missCount();
+    }
+}
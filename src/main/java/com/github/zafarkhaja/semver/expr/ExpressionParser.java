@@ -28,11 +28,10 @@ import com.github.zafarkhaja.semver.Version;
 import com.github.zafarkhaja.semver.compiling.UnexpectedTokenException;
 import com.github.zafarkhaja.semver.expr.ExprLexer.ExprToken;
 import com.github.zafarkhaja.semver.compiling.LexerException;
-import com.github.zafarkhaja.semver.util.Stream;
-import com.github.zafarkhaja.semver.util.Stream.ElementType;
-import com.github.zafarkhaja.semver.util.UnexpectedElementException;
-import java.util.EnumSet;
-import java.util.Iterator;
+import com.github.zafarkhaja.semver.compiling.TokenBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
 import static com.github.zafarkhaja.semver.expr.CompositeExpression.Helper.*;
 import static com.github.zafarkhaja.semver.expr.ExprLexer.ExprToken.Type.*;
 
@@ -50,9 +49,9 @@ public class ExpressionParser implements Parser<Expression> {
     private final ExprLexer lexer;
 
     /**
-     * The stream of tokens produced by the lexer.
+     * The buffer of tokens produced by the lexer.
      */
-    private Stream<ExprToken> tokens;
+    private TokenBuffer<ExprToken.Type> tokens;
 
     /**
      * Constructs a {@code ExpressionParser} instance
@@ -85,7 +84,7 @@ public class ExpressionParser implements Parser<Expression> {
      */
     @Override
     public Expression parse(String input) {
-        tokens = lexer.tokenize(input);
+        tokens = lexer.scan(input);
         Expression expr = parseSemVerExpression();
         consumeNextToken(EOI);
         return expr;
@@ -100,49 +99,151 @@ public class ExpressionParser implements Parser<Expression> {
      *                 | "!" "(" <semver-expr> ")"
      *                 | <semver-expr> <more-expr>
      *                 | <range>
+     *
+     * <more-expr> ::= <boolean-op> <semver-expr> | epsilon
      * }
      * </pre>
      *
+     * The expression is parsed iteratively: the enclosing groups are linked
+     * to their parents and the operands of a group, joined by the
+     * right-associative boolean operators of equal precedence, are collected
+     * into a list, so neither long chains nor deep nesting can overflow the
+     * call stack, neither while parsing nor while evaluating.
+     *
      * @return the expression AST
      */
     private CompositeExpression parseSemVerExpression() {
-        CompositeExpression expr;
-        if (tokens.positiveLookahead(NOT)) {
-            tokens.consume();
-            consumeNextToken(LEFT_PAREN);
-            expr = not(parseSemVerExpression());
-            consumeNextToken(RIGHT_PAREN);
-        } else if (tokens.positiveLookahead(LEFT_PAREN)) {
-            consumeNextToken(LEFT_PAREN);
-            expr = parseSemVerExpression();
-            consumeNextToken(RIGHT_PAREN);
-        } else {
-            expr = parseRange();
+        Group group = new Group(null, false);
+        while (true) {
+            if (tokens.positiveLookahead(NOT)) {
+                tokens.consume();
+                consumeNextToken(LEFT_PAREN);
+                group = new Group(group, true);
+                continue;
+            }
+            if (tokens.positiveLookahead(LEFT_PAREN)) {
+                consumeNextToken(LEFT_PAREN);
+                group = new Group(group, false);
+                continue;
+            }
+            Predicate<Version> operand = parseRange();
+            while (true) {
+                group.operands.add(operand);
+                if (tokens.positiveLookahead(AND)) {
+                    tokens.consume();
+                    group.conjunctions.add(true);
+                    break;
+                } else if (tokens.positiveLookahead(OR)) {
+                    tokens.consume();
+                    group.conjunctions.add(false);
+                    break;
+                }
+                if (group.parent == null) {
+                    if (group.operands.size() == 1 && !(operand instanceof Group)) {
+                        return (CompositeExpression) operand;
+                    }
+                    return new CompositeExpression(group);
+                }
+                consumeNextToken(RIGHT_PAREN);
+                operand = group.isPlain() ? group.operands.get(0) : group;
+                group = group.parent;
+            }
         }
-        return parseMoreExpressions(expr);
     }
 
     /**
-     * Parses the {@literal <more-expr>} non-terminal.
-     *
-     * <pre>
-     * {@literal
-     * <more-expr> ::= <boolean-op> <semver-expr> | epsilon
-     * }
-     * </pre>
-     *
-     * @param expr the left-hand expression of the logical operators
-     * @return the expression AST
+     * A group of expressions joined by the boolean operators,
+     * i.e. the whole input or a parenthesized expression.
+     *
+     * The operators are right-associative, i.e. {@code a & b | c} stands
+     * for {@code a & (b | c)}. The group is evaluated iteratively, from
+     * left to right, descending into the nested groups and climbing back
+     * to their parents, and short-circuits exactly like the nested
+     * {@code and} and {@code or} predicates would.
      */
-    private CompositeExpression parseMoreExpressions(CompositeExpression expr) {
-        if (tokens.positiveLookahead(AND)) {
-            tokens.consume();
-            expr = expr.and(parseSemVerExpression());
-        } else if (tokens.positiveLookahead(OR)) {
-            tokens.consume();
-            expr = expr.or(parseSemVerExpression());
+    private static final class Group implements Predicate<Version> {
+
+        /**
+         * The enclosing group or {@code null} for the whole input.
+         */
+        final Group parent;
+
+        /**
+         * The index of this group among the operands of the parent.
+         */
+        final int position;
+
+        /**
+         * Whether the group is negated.
+         */
+        final boolean negated;
+
+        /**
+         * The operands of the group, the nested groups among them.
+         */
+        final List<Predicate<Version>> operands = new ArrayList<>();
+
+        /**
+         * The operators after each but the last operand, {@code true}
+         * for the conjunction and {@code false} for the disjunction.
+         */
+        final List<Boolean> conjunctions = new ArrayList<>();
+
+        /**
+         * Constructs a {@code Group} instance.
+         *
+         * @param parent the enclosing group or {@code null} for the whole input
+         * @param negated whether the group is negated
+         */
+        Group(Group parent, boolean negated) {
+            this.parent = parent;
+            this.position = parent == null ? 0 : parent.operands.size();
+            this.negated = negated;
+        }
+
+        /**
+         * Checks if the group merely parenthesizes a single range,
+         * so that the range can take the place of the group.
+         *
+         * @return {@code true} if the group is a non-negated single range
+         */
+        boolean isPlain() {
+            return !negated && operands.size() == 1 && !(operands.get(0) instanceof Group);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean test(Version version) {
+            Group group = this;
+            int index = 0;
+            while (true) {
+                Predicate<Version> operand = group.operands.get(index);
+                if (operand instanceof Group) {
+                    group = (Group) operand;
+                    index = 0;
+                    continue;
+                }
+                boolean result = operand.test(version);
+                while (true) {
+                    /*
+                     * A true conjunct or a false disjunct passes the
+                     * evaluation on, any other operand decides the group.
+                     */
+                    if (index < group.conjunctions.size() && result == group.conjunctions.get(index)) {
+                        index++;
+                        break;
+                    }
+                    result ^= group.negated;
+                    if (group == this) {
+                        return result;
+                    }
+                    index = group.position;
+                    group = group.parent;
+                }
+            }
         }
-        return expr;
     }
 
     /**
@@ -166,9 +267,11 @@ public class ExpressionParser implements Parser<Expression> {
             return parseTildeRange();
         } else if (tokens.positiveLookahead(CARET)) {
             return parseCaretRange();
-        } else if (isWildcardRange()) {
+        }
+        ExprToken.Type follower = typeAfterVersion();
+        if (follower == WILDCARD) {
             return parseWildcardRange();
-        } else if (isHyphenRange()) {
+        } else if (follower == HYPHEN) {
             return parseHyphenRange();
         } else if (isPartialVersionRange()) {
             return parsePartialVersionRange();
@@ -188,9 +291,8 @@ public class ExpressionParser implements Parser<Expression> {
      * @return the expression AST
      */
     private CompositeExpression parseComparisonRange() {
-        ExprToken token = tokens.lookahead();
         CompositeExpression expr;
-        switch ((ExprToken.Type)token.type) {
+        switch (tokens.lookahead()) {
             case EQUAL:
                 tokens.consume();
                 expr = eq(parseVersion());
@@ -234,17 +336,17 @@ public class ExpressionParser implements Parser<Expression> {
      */
     private CompositeExpression parseTildeRange() {
         consumeNextToken(TILDE);
-        int major = Integer.parseInt(consumeNextToken(NUMERIC).lexeme);
+        int major = tokens.parseInt(consumeNextToken(NUMERIC));
         if (!tokens.positiveLookahead(DOT)) {
             return gte(versionFor(major)).and(lt(versionFor(major + 1)));
         }
         consumeNextToken(DOT);
-        int minor = Integer.parseInt(consumeNextToken(NUMERIC).lexeme);
+        int minor = tokens.parseInt(consumeNextToken(NUMERIC));
         if (!tokens.positiveLookahead(DOT)) {
             return gte(versionFor(major, minor)).and(lt(versionFor(major, minor + 1)));
         }
         consumeNextToken(DOT);
-        int patch = Integer.parseInt(consumeNextToken(NUMERIC).lexeme);
+        int patch = tokens.parseInt(consumeNextToken(NUMERIC));
         return gte(versionFor(major, minor, patch)).and(lt(versionFor(major, minor + 1)));
     }
 
@@ -261,19 +363,19 @@ public class ExpressionParser implements Parser<Expression> {
      */
     private CompositeExpression parseCaretRange() {
         consumeNextToken(CARET);
-        int major = Integer.parseInt(consumeNextToken(NUMERIC).lexeme);
+        int major = tokens.parseInt(consumeNextToken(NUMERIC));
         if (!tokens.positiveLookahead(DOT)) {
             return gte(versionFor(major)).and(lt(versionFor(major + 1)));
         }
         consumeNextToken(DOT);
-        int minor = Integer.parseInt(consumeNextToken(NUMERIC).lexeme);
+        int minor = tokens.parseInt(consumeNextToken(NUMERIC));
         if (!tokens.positiveLookahead(DOT)) {
             Version lower = versionFor(major, minor);
             Version upper = major > 0 ? lower.incrementMajorVersion() : lower.incrementMinorVersion();
             return gte(lower).and(lt(upper));
         }
         consumeNextToken(DOT);
-        int patch = Integer.parseInt(consumeNextToken(NUMERIC).lexeme);
+        int patch = tokens.parseInt(consumeNextToken(NUMERIC));
         Version version = versionFor(major, minor, patch);
         CompositeExpression gte = gte(version);
         if (major > 0) {
@@ -286,18 +388,6 @@ public class ExpressionParser implements Parser<Expression> {
         return eq(version);
     }
 
-    /**
-     * Determines if the following version terminals are part
-     * of the {@literal <wildcard-range>} non-terminal.
-     *
-     * @return {@code true} if the following version terminals are
-     *         part of the {@literal <wildcard-range>} non-terminal or
-     *         {@code false} otherwise
-     */
-    private boolean isWildcardRange() {
-        return isVersionFollowedBy(WILDCARD);
-    }
-
     /**
      * Parses the {@literal <wildcard-range>} non-terminal.
      *
@@ -319,45 +409,33 @@ public class ExpressionParser implements Parser<Expression> {
             //silently omit trailing .x in x.x or x.x.x
             if(tokens.positiveLookahead(DOT)) {
               tokens.consume();
-              tokens.consume(WILDCARD);
+              consumeNextToken(WILDCARD);
             }
             if(tokens.positiveLookahead(DOT)) {
                 tokens.consume();
-                tokens.consume(WILDCARD);
+                consumeNextToken(WILDCARD);
             }
             return gte(versionFor(0, 0, 0));
         }
 
-        int major = Integer.parseInt(consumeNextToken(NUMERIC).lexeme);
+        int major = tokens.parseInt(consumeNextToken(NUMERIC));
         consumeNextToken(DOT);
         if (tokens.positiveLookahead(WILDCARD)) {
             tokens.consume();
             //silently omit trailing .x in eg. 2.x.x
             if(tokens.positiveLookahead(DOT)) {
                 tokens.consume();
-                tokens.consume(WILDCARD);
+                consumeNextToken(WILDCARD);
             }
             return gte(versionFor(major)).and(lt(versionFor(major + 1)));
         }
 
-        int minor = Integer.parseInt(consumeNextToken(NUMERIC).lexeme);
+        int minor = tokens.parseInt(consumeNextToken(NUMERIC));
         consumeNextToken(DOT);
         consumeNextToken(WILDCARD);
         return gte(versionFor(major, minor)).and(lt(versionFor(major, minor + 1)));
     }
 
-    /**
-     * Determines if the following version terminals are
-     * part of the {@literal <hyphen-range>} non-terminal.
-     *
-     * @return {@code true} if the following version terminals are
-     *         part of the {@literal <hyphen-range>} non-terminal or
-     *         {@code false} otherwise
-     */
-    private boolean isHyphenRange() {
-        return isVersionFollowedBy(HYPHEN);
-    }
-
     /**
      * Parses the {@literal <hyphen-range>} non-terminal.
      *
@@ -387,8 +465,13 @@ public class ExpressionParser implements Parser<Expression> {
         if (!tokens.positiveLookahead(NUMERIC)) {
             return false;
         }
-        EnumSet<ExprToken.Type> expected = EnumSet.complementOf(EnumSet.of(NUMERIC, DOT));
-        return tokens.positiveLookaheadUntil(5, expected.toArray(new ExprToken.Type[expected.size()]));
+        for (int i = 1; i <= 5; i++) {
+            ExprToken.Type lookahead = tokens.lookahead(i);
+            if (lookahead != null && lookahead != NUMERIC && lookahead != DOT) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -403,12 +486,12 @@ public class ExpressionParser implements Parser<Expression> {
      * @return the expression AST
      */
     private CompositeExpression parsePartialVersionRange() {
-        int major = Integer.parseInt(consumeNextToken(NUMERIC).lexeme);
+        int major = tokens.parseInt(consumeNextToken(NUMERIC));
         if (!tokens.positiveLookahead(DOT)) {
             return gte(versionFor(major)).and(lt(versionFor(major + 1)));
         }
         consumeNextToken(DOT);
-        int minor = Integer.parseInt(consumeNextToken(NUMERIC).lexeme);
+        int minor = tokens.parseInt(consumeNextToken(NUMERIC));
         return gte(versionFor(major, minor)).and(lt(versionFor(major, minor + 1)));
     }
 
@@ -429,87 +512,131 @@ public class ExpressionParser implements Parser<Expression> {
      * @return the parsed version
      */
     private Version parseVersion() {
-        int major = Integer.parseInt(consumeNextToken(NUMERIC).lexeme);
+        int major = tokens.parseInt(consumeNextToken(NUMERIC));
         int minor = 0;
         if (tokens.positiveLookahead(DOT)) {
             tokens.consume();
-            minor = Integer.parseInt(consumeNextToken(NUMERIC).lexeme);
+            minor = tokens.parseInt(consumeNextToken(NUMERIC));
         }
         int patch = 0;
         if (tokens.positiveLookahead(DOT)) {
             tokens.consume();
-            patch = Integer.parseInt(consumeNextToken(NUMERIC).lexeme);
+            patch = tokens.parseInt(consumeNextToken(NUMERIC));
         }
-        StringBuilder pre = new StringBuilder();
-        if (tokens.positiveLookahead(HYPHEN) && tokens.lookahead(2).type == ALPHA_NUMERIC) {
+        String[] pre = null;
+        if (tokens.positiveLookahead(HYPHEN) && tokens.lookahead(2) == ALPHA_NUMERIC) {
             tokens.consume();
-            while (tokens.positiveLookahead(ALPHA_NUMERIC, NUMERIC, DOT)) {
-                pre.append(tokens.consume(ALPHA_NUMERIC, NUMERIC, DOT).lexeme);
-        }}
-        StringBuilder build = new StringBuilder();
+            pre = consumeMetadataTokens();
+        }
+        String[] build = null;
         if (tokens.positiveLookahead(PLUS)) {
             tokens.consume();
-            while (tokens.positiveLookahead(ALPHA_NUMERIC, NUMERIC, DOT)) {
-                build.append(tokens.consume(ALPHA_NUMERIC, NUMERIC, DOT).lexeme);
-            }
+            build = consumeMetadataTokens();
+        }
+        try {
+            return Version.forIntegers(major, minor, patch, pre, build);
+        } catch (IllegalArgumentException e) {
+            return reparseVersion(major, minor, patch, pre, build);
         }
-        Version vtemp = Version.forIntegers(major, minor, patch);
-        if (pre.length() != 0) vtemp = vtemp.setPreReleaseVersion(pre.toString());
-        if (build.length() != 0) vtemp = vtemp.setBuildMetadata(build.toString());
-        return vtemp;
     }
 
     /**
-     * Determines if the version terminals are
-     * followed by the specified token type.
+     * Consumes the alphanumeric, numeric and dot tokens
+     * of the pre-release version or build metadata.
      *
-     * This method is essentially a {@code lookahead(k)} method
-     * which allows to solve the grammar's ambiguities.
+     * @return the identifiers of the consumed tokens
+     *         or {@code null} if no tokens were consumed
+     */
+    private String[] consumeMetadataTokens() {
+        int from = tokens.offset();
+        while (isMetadataToken(tokens.lookahead())) {
+            tokens.consume();
+        }
+        return tokens.split(from, tokens.offset(), DOT);
+    }
+
+    /**
+     * Parses the joined identifiers of a version which failed the
+     * identifier validation, so that they are handled, and reported,
+     * exactly as by the version parser.
+     *
+     * @param major the major version number
+     * @param minor the minor version number
+     * @param patch the patch version number
+     * @param pre the pre-release identifiers or {@code null}
+     * @param build the build identifiers or {@code null}
+     * @return the parsed version
+     * @throws com.github.zafarkhaja.semver.ParseException if the identifiers are invalid
+     */
+    static Version reparseVersion(int major, int minor, int patch, String[] pre, String[] build) {
+        Version version = Version.forIntegers(major, minor, patch);
+        if (pre != null) version = version.setPreReleaseVersion(String.join(".", pre));
+        if (build != null) version = version.setBuildMetadata(String.join(".", build));
+        return version;
+    }
+
+    /**
+     * Checks if the token type can be a part of
+     * the pre-release version or build metadata.
      *
      * @param type the token type to check
-     * @return {@code true} if the version terminals are followed by
-     *         the specified token type or {@code false} otherwise
+     * @return {@code true} if the token type is alphanumeric, numeric or dot
+     */
+    private static boolean isMetadataToken(ExprToken.Type type) {
+        return type == ALPHA_NUMERIC || type == NUMERIC || type == DOT;
+    }
+
+    /**
+     * Determines the type of the token following the version terminals.
+     *
+     * This method is essentially a {@code lookahead(k)} method which
+     * allows to solve the grammar's ambiguities, e.g. to tell a wildcard
+     * or hyphen range from other ranges. It looks no further than the
+     * end of the next version, so the lookahead is bounded by the length
+     * of a single version rather than of the whole expression.
+     *
+     * @return the type of the token following the version terminals
+     *         or {@code null} if there is no such token
      */
-    private boolean isVersionFollowedBy(ElementType<ExprToken> type) {
-        Iterator<ExprToken> it = tokens.iterator();
-        ExprToken lookahead = null;
-        ExprToken lookahead2 = null;
+    private ExprToken.Type typeAfterVersion() {
+        int index = tokens.offset();
+        ExprToken.Type lookahead = null;
+        ExprToken.Type lookahead2 = null;
         //skip first two nums and dots if possible else break
         for (int i = 0; i < 2; i++) {
-            if (!it.hasNext() || (lookahead = it.next()).type != NUMERIC) {
-                if (!it.hasNext() || (lookahead2 = it.next()).type != NUMERIC && lookahead2.type != HYPHEN && lookahead2.type != PLUS)
-                    return type.isMatchedBy(lookahead);
+            if (!tokens.has(index) || (lookahead = tokens.type(index++)) != NUMERIC) {
+                if (!tokens.has(index) || (lookahead2 = tokens.type(index++)) != NUMERIC && lookahead2 != HYPHEN && lookahead2 != PLUS)
+                    return lookahead;
                 break;
-            } if (!it.hasNext() || (lookahead = it.next()).type != DOT) {
-                    return type.isMatchedBy(lookahead);
+            } if (!tokens.has(index) || (lookahead = tokens.type(index++)) != DOT) {
+                    return lookahead;
             }
         }
-        lookahead = lookahead2 == null ? it.next() : lookahead2;
+        lookahead = lookahead2 == null ? tokens.type(index++) : lookahead2;
         //skip last number if need be
-        if(lookahead.type == NUMERIC && it.hasNext()) lookahead = it.next();
+        if(lookahead == NUMERIC && tokens.has(index)) lookahead = tokens.type(index++);
         //filter out pre hyphens
-        if(lookahead.type == HYPHEN && it.hasNext()) {
+        if(lookahead == HYPHEN && tokens.has(index)) {
             // if alphanumeric, skip to the next token that cannot be used to denote a pre version
-            ExprToken f = it.next();
-            if(f.type == ALPHA_NUMERIC) {
-                while (it.hasNext()) {
-                    lookahead = it.next();
-                    if (lookahead.type != ALPHA_NUMERIC && lookahead.type != NUMERIC && lookahead.type != DOT) break;
+            if(tokens.type(index++) == ALPHA_NUMERIC) {
+                while (tokens.has(index)) {
+                    lookahead = tokens.type(index++);
+                    if (!isMetadataToken(lookahead)) break;
                 }
             }
         }
         //skip builds
-        if(lookahead.type == PLUS && it.hasNext()) {
-            ExprToken f = it.next();
+        if(lookahead == PLUS && tokens.has(index)) {
+            ExprToken.Type f = tokens.type(index++);
             // if alphanumeric or numeric, skip to the next token that cannot be used to denote a build version
-            if(f.type == ALPHA_NUMERIC || f.type == NUMERIC) {
-                while (it.hasNext()) {
-                    lookahead = it.next();
-                    if (lookahead.type != ALPHA_NUMERIC && lookahead.type != NUMERIC && lookahead.type != DOT) break;
+            if(f == ALPHA_NUMERIC || f == NUMERIC) {
+                while (tokens.has(index)) {
+                    lookahead = tokens.type(index++);
+                    if (!isMetadataToken(lookahead)) break;
                 }
             }
         }
-        return type.isMatchedBy(lookahead);
+        return lookahead;
     }
 
     /**
@@ -547,17 +674,29 @@ public class ExpressionParser implements Parser<Expression> {
         return Version.forIntegers(major, minor, patch);
     }
     /**
-     * Tries to consume the next token in the stream.
+     * Tries to consume the next token in the buffer.
      *
-     * @param expected the expected types of the next token
-     * @return the next token in the stream
+     * @param expected the expected type of the next token
+     * @return the index of the consumed token
      * @throws UnexpectedTokenException when encounters an unexpectedToken token type
      */
-    private ExprToken consumeNextToken(ExprToken.Type... expected) {
-        try {
-            return tokens.consume(expected);
-        } catch (UnexpectedElementException e) {
-            throw new UnexpectedTokenException(e);
+    private int consumeNextToken(ExprToken.Type expected) {
+        if (!tokens.positiveLookahead(expected)) {
+            throw new UnexpectedTokenException(lookaheadToken(), expected);
+        }
+        return tokens.consume();
+    }
+
+    /**
+     * Materializes the next token for an error message.
+     *
+     * @return the next token or {@code null} if there are no tokens left
+     */
+    private ExprToken lookaheadToken() {
+        int index = tokens.offset();
+        if (!tokens.has(index)) {
+            return null;
         }
+        return new ExprToken(tokens.type(index), tokens.lexeme(index), tokens.start(index));
     }
 }
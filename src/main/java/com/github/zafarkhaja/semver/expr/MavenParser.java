@@ -1,120 +1,195 @@
-/*
- * The MIT License
- *
- * Copyright 2012-2016 Zafar Khaja <zafarkhaja@gmail.com>.
- *
- * Permission is hereby granted, free of charge, to any person obtaining a copy
- * of this software and associated documentation files (the "Software"), to deal
- * in the Software without restriction, including without limitation the rights
- * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
- * copies of the Software, and to permit persons to whom the Software is
- * furnished to do so, subject to the following conditions:
- *
- * The above copyright notice and this permission notice shall be included in
- * all copies or substantial portions of the Software.
- *
- * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
- * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
- * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
- * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
- * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
- * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
- * THE SOFTWARE.
- */
-package com.github.zafarkhaja.semver.expr;
-
-import com.github.zafarkhaja.semver.Parser;
-import com.github.zafarkhaja.semver.Version;
-import com.github.zafarkhaja.semver.compiling.UnexpectedTokenException;
-import com.github.zafarkhaja.semver.util.Stream;
-
-import java.util.function.Predicate;
-
-import static com.github.zafarkhaja.semver.expr.MvnLexer.MvnToken.Type.*;
-
-/**
- * A Parser for Maven Version range strings. NOT Thread-safe.
- *
- * @author heisluft &lt;heisluftlp@gmail.com&gt;
- * @since 0.10.0
- */
-public class MavenParser implements Parser<Predicate<Version>> {
-
-    /**
-     * {@inheritDoc}
-     */
-    @Override
-    public Predicate<Version> parse(String input) {
-        Stream<MvnLexer.MvnToken> stream = new MvnLexer().tokenize(input);
-        Predicate<Version> rule = version -> false;
-        while (!stream.positiveLookahead(EOI)) {
-            rule = rule.or(nextRule(stream));
-            if (stream.consume(COMMA, EOI).type == EOI) break;
-            else if (stream.lookahead().type == EOI)
-                throw new UnexpectedTokenException(stream.lookahead(), LEFT_PAREN, LEFT_SQBR, NUMERIC);
-        }
-        return rule;
-    }
-
-    /**
-     * Parses the next rule non-terminal.
-     *
-     * @param stream the stream to operate on
-     * @return the next rule
-     * @throws UnexpectedTokenException if an unexpected token is encountered
-     */
-    private static Predicate<Version> nextRule(Stream<MvnLexer.MvnToken> stream) throws UnexpectedTokenException {
-        if(stream.positiveLookahead(NUMERIC)) return new GreaterOrEqual(parseVersion(stream));
-        MvnLexer.MvnToken l = stream.consume(LEFT_SQBR, LEFT_PAREN);
-        Version v1 = stream.positiveLookahead(NUMERIC) ? parseVersion(stream) : null;
-        Predicate<Version> part1 = v1 == null ? (v) -> true : l.lexeme.equals("[") ? new GreaterOrEqual(v1) : new Greater(v1);
-        //[1.1] evaluates to EQUALS 1.1 w/o buildnums
-        if (l.type == LEFT_SQBR && v1 != null && stream.positiveLookahead(RIGHT_SQBR)) {
-            stream.consume();
-            return version -> v1.compareTo(version) == 0;
-        }
-        stream.consume(COMMA);
-        Version v2 = stream.positiveLookahead(NUMERIC) ? parseVersion(stream) : null;
-        MvnLexer.MvnToken r = stream.consume(RIGHT_SQBR, RIGHT_PAREN);
-        Predicate<Version> part2 = v2 == null ? (v) -> true : r.lexeme.equals("]") ? new LessOrEqual(v2) : new Less(v2);
-        return part1.and(part2);
-    }
-
-    /**
-     * Parses the {@literal <version>} non-terminal
-     *
-     * @param stream the stream to operate on
-     * @return the parsed version
-     * @throws UnexpectedTokenException if an unexpected token is encountered
-     */
-    private static Version parseVersion(Stream<MvnLexer.MvnToken> stream) throws UnexpectedTokenException {
-        int major = Integer.parseInt(stream.consume(NUMERIC).lexeme);
-        int minor = 0;
-        if (stream.positiveLookahead(DOT)) {
-            stream.consume();
-            minor = Integer.parseInt(stream.consume(NUMERIC).lexeme);
-        }
-        int patch = 0;
-        if (stream.positiveLookahead(DOT)) {
-            stream.consume();
-            patch = Integer.parseInt(stream.consume(NUMERIC).lexeme);
-        }
-        StringBuilder pre = new StringBuilder();
-        if (stream.positiveLookahead(HYPHEN)) {
-            stream.consume();
-            while (stream.positiveLookahead(ALPHA_NUMERIC, NUMERIC, DOT)) {
-                pre.append(stream.consume(ALPHA_NUMERIC, NUMERIC, DOT).lexeme);
-            }}
-        StringBuilder build = new StringBuilder();
-        if (stream.positiveLookahead(PLUS)) {
-            stream.consume();
-            while (stream.positiveLookahead(ALPHA_NUMERIC, NUMERIC, DOT)) {
-                build.append(stream.consume(ALPHA_NUMERIC, NUMERIC, DOT).lexeme);
-            }
-        }
-        Version vtemp = Version.forIntegers(major, minor, patch);
-        if (pre.length() != 0) vtemp = vtemp.setPreReleaseVersion(pre.toString());
-        if (build.length() != 0) vtemp = vtemp.setBuildMetadata(build.toString());
-        return vtemp;
-    }
-}
+/*
+ * The MIT License
+ *
+ * Copyright 2012-2016 Zafar Khaja <zafarkhaja@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.zafarkhaja.semver.expr;
+
+import com.github.zafarkhaja.semver.Parser;
+import com.github.zafarkhaja.semver.Version;
+import com.github.zafarkhaja.semver.compiling.TokenBuffer;
+import com.github.zafarkhaja.semver.compiling.UnexpectedTokenException;
+import com.github.zafarkhaja.semver.expr.MvnLexer.MvnToken;
+
+import java.util.function.Predicate;
+
+import static com.github.zafarkhaja.semver.expr.MvnLexer.MvnToken.Type.*;
+
+/**
+ * A Parser for Maven Version range strings. NOT Thread-safe.
+ *
+ * @author heisluft &lt;heisluftlp@gmail.com&gt;
+ * @since 0.10.0
+ */
+public class MavenParser implements Parser<Predicate<Version>> {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Predicate<Version> parse(String input) {
+        TokenBuffer<MvnToken.Type> tokens = new MvnLexer().scan(input);
+        Predicate<Version> rule = version -> false;
+        while (!tokens.positiveLookahead(EOI)) {
+            rule = rule.or(nextRule(tokens));
+            if (tokens.type(consume(tokens, COMMA, EOI)) == EOI) break;
+            else if (tokens.lookahead() == EOI)
+                throw new UnexpectedTokenException(lookaheadToken(tokens), LEFT_PAREN, LEFT_SQBR, NUMERIC);
+        }
+        return rule;
+    }
+
+    /**
+     * Parses the next rule non-terminal.
+     *
+     * @param tokens the token buffer to operate on
+     * @return the next rule
+     * @throws UnexpectedTokenException if an unexpected token is encountered
+     */
+    private static Predicate<Version> nextRule(TokenBuffer<MvnToken.Type> tokens) throws UnexpectedTokenException {
+        if(tokens.positiveLookahead(NUMERIC)) return new GreaterOrEqual(parseVersion(tokens));
+        MvnToken.Type l = tokens.type(consume(tokens, LEFT_SQBR, LEFT_PAREN));
+        Version v1 = tokens.positiveLookahead(NUMERIC) ? parseVersion(tokens) : null;
+        Predicate<Version> part1 = v1 == null ? (v) -> true : l == LEFT_SQBR ? new GreaterOrEqual(v1) : new Greater(v1);
+        //[1.1] evaluates to EQUALS 1.1 w/o buildnums
+        if (l == LEFT_SQBR && v1 != null && tokens.positiveLookahead(RIGHT_SQBR)) {
+            tokens.consume();
+            return version -> v1.compareTo(version) == 0;
+        }
+        consume(tokens, COMMA);
+        Version v2 = tokens.positiveLookahead(NUMERIC) ? parseVersion(tokens) : null;
+        MvnToken.Type r = tokens.type(consume(tokens, RIGHT_SQBR, RIGHT_PAREN));
+        Predicate<Version> part2 = v2 == null ? (v) -> true : r == RIGHT_SQBR ? new LessOrEqual(v2) : new Less(v2);
+        return part1.and(part2);
+    }
+
+    /**
+     * Parses the {@literal <version>} non-terminal
+     *
+     * @param tokens the token buffer to operate on
+     * @return the parsed version
+     * @throws UnexpectedTokenException if an unexpected token is encountered
+     */
+    private static Version parseVersion(TokenBuffer<MvnToken.Type> tokens) throws UnexpectedTokenException {
+        int major = tokens.parseInt(consume(tokens, NUMERIC));
+        int minor = 0;
+        if (tokens.positiveLookahead(DOT)) {
+            tokens.consume();
+            minor = tokens.parseInt(consume(tokens, NUMERIC));
+        }
+        int patch = 0;
+        if (tokens.positiveLookahead(DOT)) {
+            tokens.consume();
+            patch = tokens.parseInt(consume(tokens, NUMERIC));
+        }
+        String[] pre = null;
+        if (tokens.positiveLookahead(HYPHEN)) {
+            tokens.consume();
+            pre = consumeMetadataTokens(tokens);
+        }
+        String[] build = null;
+        if (tokens.positiveLookahead(PLUS)) {
+            tokens.consume();
+            build = consumeMetadataTokens(tokens);
+        }
+        try {
+            return Version.forIntegers(major, minor, patch, pre, build);
+        } catch (IllegalArgumentException e) {
+            return ExpressionParser.reparseVersion(major, minor, patch, pre, build);
+        }
+    }
+
+    /**
+     * Consumes the alphanumeric, numeric and dot tokens
+     * of the pre-release version or build metadata.
+     *
+     * @param tokens the token buffer to operate on
+     * @return the identifiers of the consumed tokens
+     *         or {@code null} if no tokens were consumed
+     */
+    private static String[] consumeMetadataTokens(TokenBuffer<MvnToken.Type> tokens) {
+        int from = tokens.offset();
+        while (isMetadataToken(tokens.lookahead())) {
+            tokens.consume();
+        }
+        return tokens.split(from, tokens.offset(), DOT);
+    }
+
+    /**
+     * Checks if the token type can be a part of
+     * the pre-release version or build metadata.
+     *
+     * @param type the token type to check
+     * @return {@code true} if the token type is alphanumeric, numeric or dot
+     */
+    private static boolean isMetadataToken(MvnToken.Type type) {
+        return type == ALPHA_NUMERIC || type == NUMERIC || type == DOT;
+    }
+
+    /**
+     * Consumes the next token if it is of the expected type.
+     *
+     * @param tokens the token buffer to operate on
+     * @param expected the expected type of the next token
+     * @return the index of the consumed token
+     * @throws UnexpectedTokenException if the next token is of another type
+     */
+    private static int consume(TokenBuffer<MvnToken.Type> tokens, MvnToken.Type expected) {
+        if (!tokens.positiveLookahead(expected)) {
+            throw new UnexpectedTokenException(lookaheadToken(tokens), expected);
+        }
+        return tokens.consume();
+    }
+
+    /**
+     * Consumes the next token if it is of one of the expected types.
+     *
+     * @param tokens the token buffer to operate on
+     * @param expected1 the first expected type of the next token
+     * @param expected2 the second expected type of the next token
+     * @return the index of the consumed token
+     * @throws UnexpectedTokenException if the next token is of another type
+     */
+    private static int consume(
+        TokenBuffer<MvnToken.Type> tokens,
+        MvnToken.Type expected1,
+        MvnToken.Type expected2
+    ) {
+        if (!tokens.positiveLookahead(expected1) && !tokens.positiveLookahead(expected2)) {
+            throw new UnexpectedTokenException(lookaheadToken(tokens), expected1, expected2);
+        }
+        return tokens.consume();
+    }
+
+    /**
+     * Materializes the next token for an error message.
+     *
+     * @param tokens the token buffer to operate on
+     * @return the next token or {@code null} if there are no tokens left
+     */
+    private static MvnToken lookaheadToken(TokenBuffer<MvnToken.Type> tokens) {
+        int index = tokens.offset();
+        if (!tokens.has(index)) {
+            return null;
+        }
+        return new MvnToken(tokens.type(index), tokens.lexeme(index), tokens.start(index));
+    }
+}
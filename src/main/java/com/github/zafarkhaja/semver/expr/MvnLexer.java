@@ -26,11 +26,12 @@ package com.github.zafarkhaja.semver.expr;
 import com.github.zafarkhaja.semver.compiling.Lexer;
 import com.github.zafarkhaja.semver.compiling.LexerException;
 import com.github.zafarkhaja.semver.compiling.Token;
+import com.github.zafarkhaja.semver.compiling.TokenBuffer;
+import com.github.zafarkhaja.semver.compiling.TokenSource;
 import com.github.zafarkhaja.semver.util.Stream;
-
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
+
 import java.util.regex.Pattern;
 
 /**
@@ -39,31 +40,128 @@ import java.util.regex.Pattern;
  * @author heisluft &lt;heisluftlp@gmail.com&gt;
  * @since 0.10.0
  */
-class MvnLexer extends Lexer<MvnLexer.MvnToken> {
+class MvnLexer extends Lexer<MvnLexer.MvnToken> implements TokenSource<MvnLexer.MvnToken.Type> {
     /**
      * {@inheritDoc}
+     *
+     * @see #scan(String)
      */
     protected Stream<MvnToken> tokenize(String input) {
+        TokenBuffer<MvnToken.Type> buffer = scan(input);
         List<MvnToken> tokens = new ArrayList<>();
-        int tokenPos = 0;
-        while (!input.isEmpty()) {
-            boolean matched = false;
-            for (MvnToken.Type tokenType : MvnToken.Type.values()) {
-                Matcher matcher = tokenType.pattern.matcher(input);
-                if (matcher.find()) {
-                    matched = true;
-                    input = matcher.replaceFirst("");
-                    tokens.add(new MvnToken(tokenType, matcher.group(), tokenPos));
-                    tokenPos += matcher.end();
+        for (int i = 0; buffer.has(i); i++) {
+            tokens.add(new MvnToken(buffer.type(i), buffer.lexeme(i), buffer.start(i)));
+        }
+        return new Stream<>(tokens.toArray(new MvnToken[tokens.size()]));
+    }
+
+    /**
+     * Creates a token buffer lazily filled from the specified input string.
+     *
+     * @param input the input string to scan
+     * @return a buffer of tokens
+     * @see #scanNext(TokenBuffer)
+     * @since 0.10.0
+     */
+    TokenBuffer<MvnToken.Type> scan(String input) {
+        return new TokenBuffer<>(input, MvnToken.Type.VALUES, this);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The result is the same as if the patterns of the token types were
+     * tried in their declaration order at every position, so a digit
+     * sequence followed by a letter or having leading zeroes is an
+     * alphanumeric token. The last token is EOI.
+     */
+    @Override
+    public boolean scanNext(TokenBuffer<MvnToken.Type> tokens) {
+        String input = tokens.input();
+        int length = input.length();
+        int tokenPos = tokens.size() == 0 ? 0 : tokens.end(tokens.size() - 1);
+        if (tokenPos < length) {
+            int tokenEnd = tokenPos + 1;
+            MvnToken.Type tokenType;
+            char chr = input.charAt(tokenPos);
+            switch (chr) {
+                case '.':
+                    tokenType = MvnToken.Type.DOT;
+                    break;
+                case '-':
+                    tokenType = MvnToken.Type.HYPHEN;
+                    break;
+                case '+':
+                    tokenType = MvnToken.Type.PLUS;
+                    break;
+                case '[':
+                    tokenType = MvnToken.Type.LEFT_SQBR;
+                    break;
+                case ']':
+                    tokenType = MvnToken.Type.RIGHT_SQBR;
                     break;
-                }
+                case '(':
+                    tokenType = MvnToken.Type.LEFT_PAREN;
+                    break;
+                case ')':
+                    tokenType = MvnToken.Type.RIGHT_PAREN;
+                    break;
+                case ',':
+                    tokenType = MvnToken.Type.COMMA;
+                    break;
+                default:
+                    if (isDigit(chr)) {
+                        while (tokenEnd < length && isDigit(input.charAt(tokenEnd))) {
+                            tokenEnd++;
+                        }
+                        if (tokenEnd < length && Character.isLetter(input.codePointAt(tokenEnd))) {
+                            tokenType = MvnToken.Type.ALPHA_NUMERIC;
+                            tokenEnd = skipLettersOrDigits(input, tokenEnd);
+                        } else if (chr == '0' && tokenEnd - tokenPos > 1) {
+                            tokenType = MvnToken.Type.ALPHA_NUMERIC;
+                        } else {
+                            tokenType = MvnToken.Type.NUMERIC;
+                        }
+                    } else if (Character.isLetter(input.codePointAt(tokenPos))) {
+                        tokenType = MvnToken.Type.ALPHA_NUMERIC;
+                        tokenEnd = skipLettersOrDigits(input, tokenPos);
+                    } else {
+                        throw new LexerException(input.substring(tokenPos));
+                    }
             }
-            if (!matched) {
-                throw new LexerException(input);
+            tokens.add(tokenType, tokenPos, tokenEnd);
+            return true;
+        }
+        tokens.add(MvnToken.Type.EOI, tokenPos, tokenPos);
+        return false;
+    }
+
+    /**
+     * Skips the letters and digits of an alphanumeric token.
+     *
+     * @param input the input string
+     * @param index the index of the first letter or digit
+     * @return the index after the last letter or digit
+     */
+    private static int skipLettersOrDigits(String input, int index) {
+        while (index < input.length()) {
+            int codePoint = input.codePointAt(index);
+            if (!Character.isLetter(codePoint) && !isDigit(codePoint)) {
+                break;
             }
+            index += Character.charCount(codePoint);
         }
-        tokens.add(new MvnToken(MvnToken.Type.EOI, null, tokenPos));
-        return new Stream<>(tokens.toArray(new MvnToken[tokens.size()]));
+        return index;
+    }
+
+    /**
+     * Checks if the character is an ASCII digit, as matched by {@code \d}.
+     *
+     * @param chr the character to check
+     * @return {@code true} if the character is a digit
+     */
+    private static boolean isDigit(int chr) {
+        return chr >= '0' && chr <= '9';
     }
 
     /**
@@ -94,6 +192,11 @@ class MvnLexer extends Lexer<MvnLexer.MvnToken> {
             COMMA(","),
             EOI("?!");
 
+            /**
+             * The token types indexed by their ordinals.
+             */
+            static final Type[] VALUES = values();
+
             /**
              * A pattern matching this type.
              */
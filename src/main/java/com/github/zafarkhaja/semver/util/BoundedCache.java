@@ -0,0 +1,254 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2012-2016 Zafar Khaja <zafarkhaja@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.zafarkhaja.semver.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * A bounded thread-safe cache with the least recently used eviction.
+ *
+ * The entries are distributed among a number of independently locked
+ * segments by the hash codes of their keys, so the threads accessing
+ * different segments don't contend with each other. Every segment
+ * evicts its own least recently used entry when it gets full.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of cached values
+ *
+ * @author Zafar Khaja &lt;zafarkhaja@gmail.com&gt;
+ * @since 0.10.0
+ */
+public class BoundedCache<K, V> {
+
+    /**
+     * The maximum number of segments.
+     */
+    private static final int MAX_SEGMENTS = 16;
+
+    /**
+     * A segment of the cache guarded by its own lock.
+     *
+     * @param <K> the type of keys
+     * @param <V> the type of cached values
+     */
+    private static class Segment<K, V> extends LinkedHashMap<K, V> {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The maximum number of entries in this segment.
+         */
+        private final int capacity;
+
+        /**
+         * Constructs a segment with the specified capacity.
+         *
+         * @param capacity the maximum number of entries
+         */
+        Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            return size() > capacity;
+        }
+    }
+
+    /**
+     * The segments of the cache.
+     */
+    private final Segment<K, V>[] segments;
+
+    /**
+     * The maximum number of entries in the cache.
+     */
+    private final int maxSize;
+
+    /**
+     * The number of the lookups that found a cached value.
+     */
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * The number of the lookups that didn't find a cached value.
+     */
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Constructs a cache holding up to the specified number of entries.
+     *
+     * @param maxSize the maximum number of entries
+     * @throws IllegalArgumentException if the maximum size is not positive
+     */
+    public BoundedCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException(
+                "Maximum cache size MUST be positive"
+            );
+        }
+        int count = 1;
+        while (count < MAX_SEGMENTS && count * 2 <= maxSize) {
+            count *= 2;
+        }
+        @SuppressWarnings("unchecked")
+        Segment<K, V>[] segments = (Segment<K, V>[]) new Segment<?, ?>[count];
+        this.segments = segments;
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment<>(
+                maxSize / count + (i < maxSize % count ? 1 : 0)
+            );
+        }
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Gets the cached value for the specified key.
+     *
+     * @param key the key to look up
+     * @return the cached value or {@code null} if there is none
+     */
+    public V get(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        V value;
+        synchronized (segment) {
+            value = segment.get(key);
+        }
+        (value == null ? misses : hits).increment();
+        return value;
+    }
+
+    /**
+     * Gets the cached value for the specified key, computing
+     * and caching it if there is none.
+     *
+     * The value is computed outside of the lock, so concurrent misses
+     * on the same key may compute it more than once, but all of them
+     * return the value that has been cached first.
+     *
+     * @param key the key to look up
+     * @param function the function to compute the value with
+     * @return the cached or the computed value
+     */
+    public V get(K key, Function<? super K, ? extends V> function) {
+        V value = get(key);
+        if (value != null) {
+            return value;
+        }
+        V computed = function.apply(key);
+        if (computed == null) {
+            return null;
+        }
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            value = segment.putIfAbsent(key, computed);
+        }
+        return value == null ? computed : value;
+    }
+
+    /**
+     * Caches the value for the specified key.
+     *
+     * @param key the key of the value
+     * @param value the value to cache
+     */
+    public void put(K key, V value) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            segment.put(key, value);
+        }
+    }
+
+    /**
+     * Removes all the cached values, the statistics are kept.
+     */
+    public void clear() {
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of the cached values.
+     *
+     * @return the number of the cached values
+     */
+    public int size() {
+        int size = 0;
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Returns the maximum number of the cached values.
+     *
+     * @return the maximum number of the cached values
+     */
+    public int maxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Returns the number of the lookups that found a cached value.
+     *
+     * @return the number of cache hits
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of the lookups that didn't find a cached value.
+     *
+     * @return the number of cache misses
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the segment responsible for the specified key.
+     *
+     * @param key the key to find the segment for
+     * @return the segment of the key
+     */
+    private Segment<K, V> segmentFor(K key) {
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return segments[hash & (segments.length - 1)];
+    }
+}
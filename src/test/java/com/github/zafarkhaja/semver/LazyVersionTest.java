@@ -0,0 +1,99 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2012-2016 Zafar Khaja <zafarkhaja@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.zafarkhaja.semver;
+
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author Zafar Khaja &lt;zafarkhaja@gmail.com&gt;
+ */
+public class LazyVersionTest {
+
+    @Test
+    public void shouldValidateWithoutParsing() {
+        LazyVersion version = Version.lazy("1.2.3-rc.1+build.5");
+        assertFalse(version.isParsed());
+        assertEquals("1.2.3-rc.1+build.5", version.toString());
+        assertFalse(version.isParsed());
+        assertThrows(ParseException.class, () -> Version.lazy("1.2.3-"));
+        assertThrows(ParseException.class, () -> Version.lazy("01.2.3"));
+        assertThrows(IllegalArgumentException.class, () -> Version.lazy(null));
+        assertThrows(IllegalArgumentException.class, () -> Version.lazy(""));
+    }
+
+    @Test
+    public void shouldParseOnFirstAccessToComponents() {
+        LazyVersion version = Version.lazy(new StringBuilder("1.2.3-rc.1+build.5"));
+        assertEquals(2, version.getMinorVersion());
+        assertTrue(version.isParsed());
+        assertEquals(1, version.getMajorVersion());
+        assertEquals(3, version.getPatchVersion());
+        assertEquals("rc.1", version.getPreReleaseVersion());
+        assertEquals("build.5", version.getBuildMetadata());
+        assertSame(version.toVersion(), version.toVersion());
+        assertTrue(Version.lazy("1.5.0").satisfies(">=1.0.0 & <2.0.0"));
+    }
+
+    @Test
+    public void shouldCompareCanonicalTextsWithoutParsing() {
+        LazyVersion v1 = Version.lazy("1.0.0-rc.1+build.1");
+        LazyVersion v2 = Version.lazy("1.0.0-rc.1+build.2");
+        LazyVersion v3 = Version.lazy("1.0.0-rc.2");
+        assertTrue(v1.isCanonical());
+        assertEquals(v1, v2);
+        assertNotEquals(v1, v3);
+        assertEquals(0, Version.lazy("2.0.0").compareTo(Version.lazy("2.0.0")));
+        assertFalse(v1.isParsed() || v2.isParsed() || v3.isParsed());
+    }
+
+    @Test
+    public void shouldFollowVersionSemanticsForNonCanonicalTexts() {
+        LazyVersion partial = Version.lazy("1.2");
+        assertFalse(partial.isCanonical());
+        assertEquals(partial, Version.lazy("1.2.0"));
+        assertEquals(Version.lazy("1.2.0").hashCode(), partial.hashCode());
+        assertTrue(partial.compareTo(Version.lazy("1.10.0")) < 0);
+        assertTrue(Version.lazy("1.0.0-rc.10").compareTo(Version.lazy("1.0.0-rc.9")) > 0);
+    }
+
+    @Test
+    public void shouldHashTextsWithoutPreReleaseWithoutParsing() {
+        LazyVersion canonical = Version.lazy("1.20.3+build.1");
+        LazyVersion partial = Version.lazy("7");
+        assertEquals(Version.valueOf("1.20.3").hashCode(), canonical.hashCode());
+        assertEquals(Version.valueOf("7.0.0").hashCode(), partial.hashCode());
+        Set<LazyVersion> set = new HashSet<>();
+        set.add(canonical);
+        assertTrue(set.contains(Version.lazy("1.20.3")));
+        assertFalse(canonical.isParsed() || partial.isParsed());
+
+        LazyVersion preRelease = Version.lazy("1.2-rc.1");
+        assertEquals(Version.valueOf("1.2.0-rc.1").hashCode(), preRelease.hashCode());
+        assertEquals(Version.lazy("1.2.0-rc.1").hashCode(), preRelease.hashCode());
+    }
+}
@@ -80,6 +80,16 @@ public class MetadataVersionTest {
             assertTrue(0 < v1.compareTo(v2));
         }
 
+        @Test
+        public void shouldGiveNumericIdentifiersLowerPrecedenceThanAlphanumeric() {
+            MetadataVersion v1 = new MetadataVersion(new String[] {"9"});
+            MetadataVersion v2 = new MetadataVersion(new String[] {"10a"});
+            MetadataVersion v3 = new MetadataVersion(new String[] {"-"});
+            assertTrue(0 > v1.compareTo(v2));
+            assertTrue(0 < v2.compareTo(v1));
+            assertTrue(0 > v1.compareTo(v3));
+        }
+
         @Test
         public void shouldReturnNegativeWhenComparedToNullMetadataVersion() {
             MetadataVersion v1 = new MetadataVersion(new String[] {});
@@ -128,6 +138,86 @@ public class MetadataVersionTest {
             MetadataVersion v2 = v1.increment();
             assertNotSame(v1, v2);
         }
+
+        @Test
+        public void shouldNotModifyOriginalIdentifiersWhenIncrementing() {
+            MetadataVersion v1 = new MetadataVersion(
+                new String[] {"alpha", "1"}
+            );
+            v1.increment();
+            assertEquals("alpha.1", v1.toString());
+        }
+
+        @Test
+        public void shouldCompareNumericIdentifiersBeyondIntegerRange() {
+            MetadataVersion v1 = new MetadataVersion(
+                new String[] {"rc", "9999999999"}
+            );
+            MetadataVersion v2 = new MetadataVersion(
+                new String[] {"rc", "10000000000"}
+            );
+            assertTrue(0 > v1.compareTo(v2));
+        }
+
+        @Test
+        public void shouldCompareNumericIdentifiersOfAnyLength() {
+            MetadataVersion v1 = new MetadataVersion(
+                new String[] {"ci", "99999999999999999999999"}
+            );
+            MetadataVersion v2 = new MetadataVersion(
+                new String[] {"ci", "100000000000000000000000"}
+            );
+            MetadataVersion v3 = new MetadataVersion(
+                new String[] {"ci", "20261018123045"}
+            );
+            assertTrue(0 > v1.compareTo(v2));
+            assertTrue(0 < v2.compareTo(v1));
+            assertTrue(0 > v3.compareTo(v1));
+            assertTrue(0 < v1.compareTo(v3));
+        }
+
+        @Test
+        public void shouldIgnoreLeadingZeroesWhenComparingLongNumericIdentifiers() {
+            MetadataVersion v1 = new MetadataVersion(
+                new String[] {"0000123456789012345678901"}
+            );
+            MetadataVersion v2 = new MetadataVersion(
+                new String[] {"123456789012345678901"}
+            );
+            assertEquals(0, v1.compareTo(v2));
+            assertEquals(v1.hashCode(), v2.hashCode());
+        }
+
+        @Test
+        public void shouldIncrementNumericIdentifiersOfAnyLength() {
+            MetadataVersion v1 = new MetadataVersion(
+                new String[] {"rc", "99999999999999999999"}
+            );
+            MetadataVersion v2 = new MetadataVersion(
+                new String[] {"rc", "999999999999999999"}
+            );
+            assertEquals("rc.100000000000000000000", v1.increment().toString());
+            assertEquals("rc.1000000000000000000", v2.increment().toString());
+        }
+
+        @Test
+        public void shouldCompareHyphenatedIdentifiersLexically() {
+            MetadataVersion v1 = new MetadataVersion(new String[] {"-10"});
+            MetadataVersion v2 = new MetadataVersion(new String[] {"-9"});
+            assertTrue(0 > v1.compareTo(v2));
+        }
+
+        @Test
+        public void shouldHaveSameHashCodeIfEqual() {
+            MetadataVersion v1 = new MetadataVersion(
+                new String[] {"build", "05"}
+            );
+            MetadataVersion v2 = new MetadataVersion(
+                new String[] {"build", "5"}
+            );
+            assertEquals(v1, v2);
+            assertEquals(v1.hashCode(), v2.hashCode());
+        }
     }
 
     @Nested
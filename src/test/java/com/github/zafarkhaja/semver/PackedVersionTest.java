@@ -0,0 +1,113 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2012-2016 Zafar Khaja <zafarkhaja@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.zafarkhaja.semver;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import static com.github.zafarkhaja.semver.PackedVersion.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author Zafar Khaja &lt;zafarkhaja@gmail.com&gt;
+ */
+public class PackedVersionTest {
+
+    @Test
+    public void shouldParseVersionCoresIntoPackedForm() {
+        assertEquals(pack(1, 2, 3), parse("1.2.3"));
+        assertEquals(pack(1, 2, 0), parse("1.2"));
+        assertEquals(pack(1, 0, 0), parse("1"));
+        assertEquals(pack(MAX_NUMBER, MAX_NUMBER, MAX_NUMBER), parse("2097151.2097151.2097151"));
+        assertEquals("10.20.30", PackedVersion.toString(parse("10.20.30")));
+    }
+
+    @Test
+    public void shouldReturnNotPackableForUnpackableVersions() {
+        String[] inputs = {
+            null, "", "1.", "1..2", "01.2.3", "1.2.3.4", "a.b.c", "1.2.3 ",
+            "1.2.3-rc.1", "1.2.3+build", "2097152.0.0", "0.0.99999999999",
+        };
+        for (String input : inputs) {
+            assertEquals(NOT_PACKABLE, parse(input), String.valueOf(input));
+        }
+        assertEquals(NOT_PACKABLE, pack(Version.valueOf("1.2.3-rc.1")));
+        assertEquals(NOT_PACKABLE, pack(Version.valueOf("1.2.3+build")));
+        assertEquals(NOT_PACKABLE, pack(Version.valueOf("1.2097152.3")));
+        assertEquals(NOT_PACKABLE, pack(-1, 0, 0));
+        assertFalse(isPacked(NOT_PACKABLE));
+    }
+
+    @Test
+    public void shouldConvertToAndFromVersions() {
+        Version version = Version.valueOf("4.5.6");
+        long packed = pack(version);
+        assertEquals(4, major(packed));
+        assertEquals(5, minor(packed));
+        assertEquals(6, patch(packed));
+        assertEquals(version, toVersion(packed));
+        assertThrows(IllegalArgumentException.class, () -> toVersion(NOT_PACKABLE));
+    }
+
+    @Test
+    public void shouldPreserveNaturalOrderOfVersions() {
+        Random random = new Random(3);
+        for (int i = 0; i < 10000; i++) {
+            Version v1 = randomVersion(random);
+            Version v2 = randomVersion(random);
+            assertEquals(
+                Integer.signum(v1.compareTo(v2)),
+                Integer.signum(compare(pack(v1), pack(v2))),
+                v1 + " vs " + v2
+            );
+        }
+    }
+
+    @Test
+    public void shouldIncrementVersionNumbers() {
+        long packed = parse("1.2.3");
+        assertEquals(parse("2.0.0"), incrementMajor(packed));
+        assertEquals(parse("1.3.0"), incrementMinor(packed));
+        assertEquals(parse("1.2.4"), incrementPatch(packed));
+        assertEquals(
+            Version.valueOf("1.2.3").incrementMinorVersion(),
+            toVersion(incrementMinor(packed))
+        );
+    }
+
+    @Test
+    public void shouldThrowArithmeticExceptionOnOverflow() {
+        long packed = pack(MAX_NUMBER, MAX_NUMBER, MAX_NUMBER);
+        assertThrows(ArithmeticException.class, () -> incrementMajor(packed));
+        assertThrows(ArithmeticException.class, () -> incrementMinor(packed));
+        assertThrows(ArithmeticException.class, () -> incrementPatch(packed));
+        assertThrows(IllegalArgumentException.class, () -> incrementPatch(NOT_PACKABLE));
+    }
+
+    private static Version randomVersion(Random random) {
+        int[] bounds = {3, 100, MAX_NUMBER + 1};
+        int bound = bounds[random.nextInt(bounds.length)];
+        return new Version(random.nextInt(bound), random.nextInt(bound), random.nextInt(bound));
+    }
+}
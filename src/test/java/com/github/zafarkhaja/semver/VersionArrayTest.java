@@ -0,0 +1,102 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2012-2016 Zafar Khaja <zafarkhaja@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.zafarkhaja.semver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author Zafar Khaja &lt;zafarkhaja@gmail.com&gt;
+ */
+public class VersionArrayTest {
+
+    @Test
+    public void shouldMaterializeStoredVersions() {
+        VersionArray array = new VersionArray(1);
+        array.add(Version.valueOf("1.0.0-rc.1+build.05"));
+        array.addAll(Arrays.asList(Version.valueOf("2.3.4"), Version.valueOf("1.0.0-rc.1")));
+        assertEquals(3, array.size());
+        assertEquals("1.0.0-rc.1+build.05", array.get(0).toString());
+        assertEquals("2.3.4", array.get(1).toString());
+        assertEquals("1.0.0-rc.1", array.get(2).toString());
+        assertEquals(3, array.getMinorVersion(1));
+        assertSame(array.get(0).preRelease(), array.get(2).preRelease());
+    }
+
+    @Test
+    public void shouldSortVersionsInNaturalOrder() {
+        List<Version> versions = randomVersions(new Random(7), 5000);
+        VersionArray array = new VersionArray();
+        array.addAll(versions);
+        array.sort();
+        Collections.sort(versions);
+        for (int i = 0; i < versions.size(); i++) {
+            assertEquals(0, versions.get(i).compareTo(array.get(i)), "at index " + i);
+        }
+    }
+
+    @Test
+    public void shouldFindVersionsWithBinarySearch() {
+        VersionArray array = new VersionArray();
+        for (String version : new String[] {"2.0.0", "1.0.0", "1.0.0-beta", "1.0.0-alpha", "0.9.0"}) {
+            array.add(Version.valueOf(version));
+        }
+        array.sort();
+        assertEquals(0, array.binarySearch(Version.valueOf("0.9.0")));
+        assertEquals(2, array.binarySearch(Version.valueOf("1.0.0-beta+build")));
+        assertEquals(4, array.binarySearch(Version.valueOf("2.0.0")));
+        assertEquals(-3, array.binarySearch(Version.valueOf("1.0.0-alpha.1")));
+        assertEquals(-6, array.binarySearch(Version.valueOf("3.0.0")));
+    }
+
+    @Test
+    public void shouldRaiseErrorForIndexOutOfRange() {
+        VersionArray array = new VersionArray();
+        array.add(Version.valueOf("1.0.0"));
+        assertThrows(IndexOutOfBoundsException.class, () -> array.get(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> array.getMajorVersion(-1));
+    }
+
+    private static List<Version> randomVersions(Random random, int count) {
+        String[] preReleases = {"alpha", "alpha.1", "beta", "beta.2", "beta.11", "rc.1", "1", "x-y"};
+        List<Version> versions = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String version = random.nextInt(4) + "." + random.nextInt(4) + "." + random.nextInt(4);
+            if (random.nextBoolean()) {
+                version += "-" + preReleases[random.nextInt(preReleases.length)];
+            }
+            if (random.nextInt(4) == 0) {
+                version += "+build." + random.nextInt(10);
+            }
+            versions.add(Version.valueOf(version));
+        }
+        return versions;
+    }
+}
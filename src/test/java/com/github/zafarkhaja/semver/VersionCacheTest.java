@@ -0,0 +1,68 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2012-2016 Zafar Khaja <zafarkhaja@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.zafarkhaja.semver;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author Zafar Khaja &lt;zafarkhaja@gmail.com&gt;
+ */
+public class VersionCacheTest {
+
+    @Test
+    public void shouldReturnSharedInstanceForSameString() {
+        VersionCache cache = new VersionCache(16);
+        Version v1 = cache.valueOf("1.2.3-beta+build");
+        Version v2 = cache.valueOf("1.2.3-beta+build");
+        assertSame(v1, v2);
+        assertEquals(Version.valueOf("1.2.3-beta+build"), v1);
+        assertEquals(1, cache.hitCount());
+        assertEquals(1, cache.missCount());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void shouldNotCacheInvalidVersions() {
+        VersionCache cache = new VersionCache(16);
+        assertThrows(ParseException.class, () -> cache.valueOf("1.2.3-"));
+        assertThrows(ParseException.class, () -> cache.valueOf("1.2.3-"));
+        assertThrows(IllegalArgumentException.class, () -> cache.valueOf(null));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void shouldBeUsedByVersionValueOfWhenInstalledGlobally() {
+        VersionCache cache = new VersionCache(16);
+        VersionCache.setGlobal(cache);
+        try {
+            assertSame(Version.valueOf("2.0.0"), Version.valueOf("2.0.0"));
+            assertEquals(1, cache.hitCount());
+        } finally {
+            VersionCache.setGlobal(null);
+        }
+        assertNotSame(Version.valueOf("2.0.0"), Version.valueOf("2.0.0"));
+    }
+}
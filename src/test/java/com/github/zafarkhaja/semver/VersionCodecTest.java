@@ -0,0 +1,126 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2012-2016 Zafar Khaja <zafarkhaja@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.zafarkhaja.semver;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author Zafar Khaja &lt;zafarkhaja@gmail.com&gt;
+ */
+public class VersionCodecTest {
+
+    private static final String[] VERSIONS = {
+        "0.0.0",
+        "1.0.0-alpha",
+        "1.0.0-alpha.1",
+        "1.0.0-rc.1+build.1",
+        "1.0.0-rc.1+build.01",
+        "2147483647.2147483647.2147483647",
+        "1.3.7+build.11.e0f985a",
+        "1.0.0-20261018123045123456789",
+        "128.16384.2097152-x-y-z.--",
+    };
+
+    @Test
+    public void shouldWriteAndReadVersionsThroughDataStreams() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        VersionCodec writer = new VersionCodec();
+        for (String version : VERSIONS) {
+            writer.write(Version.valueOf(version), out);
+        }
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        VersionCodec reader = new VersionCodec();
+        for (String version : VERSIONS) {
+            assertEquals(version, reader.read(in).toString());
+        }
+        assertEquals(-1, in.read());
+    }
+
+    @Test
+    public void shouldWriteAndReadVersionsThroughByteBuffers() {
+        ByteBuffer buffer = ByteBuffer.allocate(512);
+        VersionCodec writer = new VersionCodec();
+        for (String version : VERSIONS) {
+            writer.write(Version.valueOf(version), buffer);
+        }
+        buffer.flip();
+        VersionCodec reader = new VersionCodec();
+        for (String version : VERSIONS) {
+            assertEquals(version, reader.read(buffer).toString());
+        }
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    public void shouldWriteRepeatedIdentifiersAsReferences() {
+        VersionCodec codec = new VersionCodec();
+        ByteBuffer first = codec.write(Version.valueOf("1.0.0-alpha+build"), ByteBuffer.allocate(32));
+        ByteBuffer second = codec.write(Version.valueOf("1.0.0-alpha+build"), ByteBuffer.allocate(32));
+        assertEquals(3 + 1 + 6 + 1 + 6, first.position());
+        assertEquals(3 + 2 + 2, second.position());
+    }
+
+    @Test
+    public void shouldRejectCorruptedData() {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> new VersionCodec().read(ByteBuffer.wrap(new byte[] {1, 0, 0, 1, 4, '0', '1', 0}))
+        );
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> new VersionCodec().read(ByteBuffer.wrap(new byte[] {1, 0, 0, 1, 1, 0}))
+        );
+        assertThrows(
+            StreamCorruptedException.class,
+            () -> new VersionCodec().read(new DataInputStream(
+                new ByteArrayInputStream(new byte[] {-1, -1, -1, -1, 15, 0, 0, 0, 0})
+            ))
+        );
+    }
+
+    @Test
+    public void shouldNotAllocateForgedIdentifierLengths() {
+        byte[] forged = {1, 0, 0, 1, (byte) 0xFE, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07};
+        assertThrows(
+            BufferUnderflowException.class,
+            () -> new VersionCodec().read(ByteBuffer.wrap(forged))
+        );
+        assertThrows(
+            EOFException.class,
+            () -> new VersionCodec().read(new DataInputStream(new ByteArrayInputStream(forged)))
+        );
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2012-2016 Zafar Khaja <zafarkhaja@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.zafarkhaja.semver;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author Zafar Khaja &lt;zafarkhaja@gmail.com&gt;
+ */
+public class VersionKeyCodecTest {
+
+    private static final String[] VERSIONS = {
+        "0.0.0",
+        "0.0.1-0",
+        "1.0.0-alpha",
+        "1.0.0-alpha.1",
+        "1.0.0-alpha.beta",
+        "1.0.0-beta",
+        "1.0.0-beta.2",
+        "1.0.0-beta.11",
+        "1.0.0-rc.1",
+        "1.0.0-rc.1+build.1",
+        "1.0.0-rc.1+build.01",
+        "1.0.0-rc.1+build.2",
+        "1.0.0-rc.1+build",
+        "1.0.0-rc.1+1.a",
+        "1.0.0",
+        "1.0.0+001",
+        "1.0.0+exp.sha.5114f85",
+        "1.0.0-9",
+        "1.0.0-10",
+        "1.0.0-9a",
+        "1.0.0-10a",
+        "1.0.0--",
+        "1.0.0-20261018123045",
+        "1.0.0-99999999999999999999999999",
+        "1.0.0-100000000000000000000000000",
+        "1.2.3",
+        "255.255.65535",
+        "2147483647.0.0",
+    };
+
+    @Test
+    public void shouldPreserveOrderOfVersions() {
+        List<Version> versions = new ArrayList<>();
+        for (String version : VERSIONS) {
+            versions.add(Version.valueOf(version));
+        }
+        versions.addAll(randomVersions(new Random(42), 300));
+        for (Version v1 : versions) {
+            byte[] key1 = VersionKeyCodec.PRECEDENCE.encode(v1);
+            byte[] buildKey1 = VersionKeyCodec.BUILD_AWARE.encode(v1);
+            for (Version v2 : versions) {
+                byte[] key2 = VersionKeyCodec.PRECEDENCE.encode(v2);
+                byte[] buildKey2 = VersionKeyCodec.BUILD_AWARE.encode(v2);
+                assertEquals(
+                    Integer.signum(v1.compareTo(v2)),
+                    Integer.signum(VersionKeyCodec.compare(key1, key2)),
+                    v1 + " <=> " + v2
+                );
+                assertEquals(
+                    Integer.signum(Version.BUILD_AWARE_ORDER.compare(v1, v2)),
+                    Integer.signum(VersionKeyCodec.compare(buildKey1, buildKey2)),
+                    v1 + " <=> " + v2
+                );
+            }
+        }
+    }
+
+    @Test
+    public void shouldEncodeNumericIdentifiersLongerThan255Digits() {
+        StringBuilder digits = new StringBuilder("1");
+        for (int i = 0; i < 300; i++) {
+            digits.append('0');
+        }
+        Version v1 = Version.valueOf("1.0.0-" + digits);
+        Version v2 = Version.valueOf("1.0.0-9" + digits.substring(2));
+        Version v3 = Version.valueOf("1.0.0-" + digits.substring(0, 250));
+        byte[] key1 = VersionKeyCodec.PRECEDENCE.encode(v1);
+        assertTrue(VersionKeyCodec.compare(key1, VersionKeyCodec.PRECEDENCE.encode(v2)) > 0);
+        assertTrue(VersionKeyCodec.compare(key1, VersionKeyCodec.PRECEDENCE.encode(v3)) > 0);
+    }
+
+    @Test
+    public void shouldEncodeVersionIntoByteBuffer() {
+        Version version = Version.valueOf("1.0.0-rc.1+build.5");
+        byte[] key = VersionKeyCodec.BUILD_AWARE.encode(version);
+        assertEquals(key.length, VersionKeyCodec.BUILD_AWARE.encodedLength(version));
+        for (ByteBuffer dst : new ByteBuffer[] {
+            ByteBuffer.allocate(64),
+            ByteBuffer.allocateDirect(64)
+        }) {
+            dst.put((byte) 7);
+            VersionKeyCodec.BUILD_AWARE.encode(version, dst);
+            assertEquals(1 + key.length, dst.position());
+            byte[] written = new byte[key.length];
+            dst.flip().position(1);
+            dst.get(written);
+            assertArrayEquals(key, written);
+        }
+    }
+
+    @Test
+    public void shouldIgnoreBuildMetadataInPrecedenceKeys() {
+        assertArrayEquals(
+            VersionKeyCodec.PRECEDENCE.encode(Version.valueOf("1.0.0-rc.1")),
+            VersionKeyCodec.PRECEDENCE.encode(Version.valueOf("1.0.0-rc.1+build.5"))
+        );
+    }
+
+    private static List<Version> randomVersions(Random random, int count) {
+        String[] pool = {"0", "1", "2", "10", "007", "a", "b", "ab", "a-b", "-", "1a", "rc", "z9"};
+        List<Version> versions = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            StringBuilder sb = new StringBuilder()
+                .append(random.nextInt(3)).append('.')
+                .append(random.nextInt(3)).append('.')
+                .append(random.nextInt(3));
+            if (random.nextBoolean()) {
+                sb.append('-').append(identifiers(random, pool, false));
+            }
+            if (random.nextBoolean()) {
+                sb.append('+').append(identifiers(random, pool, true));
+            }
+            versions.add(Version.valueOf(sb.toString()));
+        }
+        return versions;
+    }
+
+    private static String identifiers(Random random, String[] pool, boolean build) {
+        StringBuilder sb = new StringBuilder();
+        int count = 1 + random.nextInt(3);
+        for (int i = 0; i < count; i++) {
+            String ident = pool[random.nextInt(pool.length)];
+            if (!build && ident.equals("007")) {
+                ident = "7";
+            }
+            sb.append(i > 0 ? "." : "").append(ident);
+        }
+        return sb.toString();
+    }
+}
@@ -100,4 +100,12 @@ public class VersionParserCharTypeTest {
         assertEquals(EOI,     CharType.forCharacter(null));
         assertEquals(ILLEGAL, CharType.forCharacter('!'));
     }
+
+    @Test
+    public void shouldTreatNonAsciiCharactersAsIllegal() {
+        assertEquals(ILLEGAL, CharType.forChar('\u00e9'));
+        assertEquals(ILLEGAL, CharType.forChar('\u0661'));
+        assertTrue(ILLEGAL.isMatchedBy('\uff10'));
+        assertFalse(DIGIT.isMatchedBy('\uff10'));
+    }
 }
@@ -24,6 +24,9 @@
 package com.github.zafarkhaja.semver;
 
 import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -119,6 +122,74 @@ public class VersionParserTest {
         );
     }
 
+    @Test
+    public void shouldParseVersionFromCharSequenceRange() {
+        StringBuilder input = new StringBuilder("lib@1.0.0-rc.2+build.05;");
+        Version version = VersionParser.parseValidSemVer(input, 4, 23);
+        assertEquals("1.0.0-rc.2+build.05", version.toString());
+    }
+
+    @Test
+    public void shouldParseVersionFromCharArrayRange() {
+        char[] input = "lib@1.0.0-rc.2+build.05;".toCharArray();
+        Version version = VersionParser.parseValidSemVer(input, 4, 19);
+        assertEquals("1.0.0-rc.2+build.05", version.toString());
+    }
+
+    @Test
+    public void shouldParseVersionFromByteArrayRange() {
+        byte[] input = "lib@1.0.0-rc.2+build.05;".getBytes(StandardCharsets.US_ASCII);
+        Version version = VersionParser.parseValidSemVer(input, 4, 19);
+        assertEquals("1.0.0-rc.2+build.05", version.toString());
+    }
+
+    @Test
+    public void shouldParseVersionFromRemainingBytesOfBuffer() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(32);
+        buffer.put("lib@1.0.0-rc.2+build.05".getBytes(StandardCharsets.US_ASCII));
+        buffer.flip().position(4);
+        Version version = VersionParser.parseValidSemVer(buffer);
+        assertEquals("1.0.0-rc.2+build.05", version.toString());
+        assertEquals(4, buffer.position());
+    }
+
+    @Test
+    public void shouldReportSamePositionsForBytesAsForString() {
+        String input = "1.2.3-beta.é";
+        UnexpectedCharacterException expected = assertThrows(
+            UnexpectedCharacterException.class,
+            () -> VersionParser.parseValidSemVer(input)
+        );
+        UnexpectedCharacterException actual = assertThrows(
+            UnexpectedCharacterException.class,
+            () -> VersionParser.parseValidSemVer(
+                ByteBuffer.wrap(input.getBytes(StandardCharsets.UTF_8))
+            )
+        );
+        assertEquals(expected.getPosition(), actual.getPosition());
+        assertArrayEquals(expected.getExpectedCharTypes(), actual.getExpectedCharTypes());
+    }
+
+    @Test
+    public void shouldReportPositionsRelativeToStartOfRange() {
+        try {
+            VersionParser.parseValidSemVer("lib@1.2.3=alpha", 4, 15);
+        } catch (UnexpectedCharacterException e) {
+            assertEquals(5, e.getPosition());
+            assertEquals(Character.valueOf('='), e.getUnexpectedCharacter());
+            return;
+        }
+        fail("Should raise error for unexpected character");
+    }
+
+    @Test
+    public void shouldRaiseErrorForIllegalRange() {
+        assertThrows(IllegalArgumentException.class, () -> new VersionParser("1.0.0", 2, 2));
+        assertThrows(IndexOutOfBoundsException.class, () -> new VersionParser("1.0.0", 2, 6));
+        assertThrows(IndexOutOfBoundsException.class, () -> new VersionParser("1.0.0", 3, 2));
+        assertThrows(IndexOutOfBoundsException.class, () -> new VersionParser(new char[3], 1, 3));
+    }
+
     @Test
     public void shouldRaiseErrorForIllegalInputString() {
         for (String illegal : new String[] { "", null }) {
@@ -0,0 +1,87 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2012-2016 Zafar Khaja <zafarkhaja@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.zafarkhaja.semver;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author Zafar Khaja &lt;zafarkhaja@gmail.com&gt;
+ */
+public class VersionPoolTest {
+
+    @Test
+    public void shouldReturnCanonicalInstanceOfEqualVersions() {
+        VersionPool pool = VersionPool.weak();
+        Version v1 = pool.intern(Version.valueOf("1.2.3-rc.1+build.1"));
+        Version v2 = pool.intern(Version.valueOf("1.2.3-rc.1+build.1"));
+        assertSame(v1, v2);
+        assertEquals(1, pool.size());
+    }
+
+    @Test
+    public void shouldDistinguishVersionsByBuildMetadata() {
+        VersionPool pool = VersionPool.weak();
+        Version v1 = pool.intern(Version.valueOf("1.2.3+build.5"));
+        Version v2 = pool.intern(Version.valueOf("1.2.3+build.05"));
+        Version v3 = pool.intern(Version.valueOf("1.2.3"));
+        assertNotSame(v1, v2);
+        assertNotSame(v1, v3);
+        assertEquals("1.2.3+build.05", v2.toString());
+        assertEquals(3, pool.size());
+    }
+
+    @Test
+    public void shouldNotExceedMaximumSizeOfBoundedPool() {
+        VersionPool pool = VersionPool.bounded(4);
+        Version first = pool.intern(Version.forIntegers(0));
+        assertSame(first, pool.intern(Version.forIntegers(0)));
+        for (int i = 1; i <= 100; i++) {
+            pool.intern(Version.forIntegers(i));
+        }
+        assertTrue(pool.size() <= 4);
+        assertNotSame(first, pool.intern(Version.forIntegers(0)));
+    }
+
+    @Test
+    public void shouldRemoveAllVersionsOnClear() {
+        VersionPool pool = VersionPool.weak();
+        pool.intern(Version.forIntegers(1));
+        pool.clear();
+        assertEquals(0, pool.size());
+    }
+
+    @Test
+    public void shouldInternVersionsInGlobalPool() {
+        Version v1 = Version.valueOf("4.5.6-beta").intern();
+        Version v2 = Version.valueOf("4.5.6-beta").intern();
+        assertSame(v1, v2);
+    }
+
+    @Test
+    public void shouldRaiseErrorForNullGlobalPool() {
+        assertThrows(IllegalArgumentException.class, () -> VersionPool.setGlobal(null));
+    }
+}
@@ -27,6 +27,12 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Nested;
 
 import java.io.*;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
 
 import static com.github.zafarkhaja.semver.expr.CompositeExpression.Helper.gte;
 import static com.github.zafarkhaja.semver.expr.CompositeExpression.Helper.lt;
@@ -51,6 +57,123 @@ public class VersionTest {
             assertNotEquals(v.withPatch(4, true), Version.forIntegers(1, 2, 4));
         }
 
+        @Test
+        public void shouldParseVersionInPlaceFromLargerInput() {
+            String line = "requires foo 1.2.3-beta+exp.sha.5114f85 or later";
+            Version v1 = Version.valueOf(line, 13, 39);
+            Version v2 = Version.valueOf(line.toCharArray(), 13, 26);
+            assertEquals("1.2.3-beta+exp.sha.5114f85", v1.toString());
+            assertEquals("1.2.3-beta+exp.sha.5114f85", v2.toString());
+        }
+
+        @Test
+        public void shouldParseVersionFromBytesWithoutDecoding() {
+            byte[] frame = "version=1.2.3-beta;".getBytes(StandardCharsets.US_ASCII);
+            Version v1 = Version.valueOf(frame, 8, 10);
+            Version v2 = Version.valueOf(ByteBuffer.wrap(frame, 8, 10));
+            assertEquals("1.2.3-beta", v1.toString());
+            assertEquals("1.2.3-beta", v2.toString());
+        }
+
+        @Test
+        public void shouldCompareVersionNumbersAcrossWholeRange() {
+            Version v1 = Version.forIntegers(Integer.MAX_VALUE, 0, 0);
+            Version v2 = Version.forIntegers(0, Integer.MAX_VALUE, Integer.MAX_VALUE);
+            assertTrue(v1.compareTo(v2) > 0);
+            assertTrue(v2.compareTo(v1) < 0);
+            assertEquals(0, v1.compareTo(Version.valueOf("2147483647.0.0")));
+        }
+
+        @Test
+        public void shouldRaiseErrorIfVersionNumberOverflows() {
+            Version v = Version.forIntegers(Integer.MAX_VALUE);
+            assertThrows(IllegalArgumentException.class, v::incrementMajorVersion);
+            assertThrows(IllegalArgumentException.class, () -> v.withMinor(-1, true));
+        }
+
+        @Test
+        public void shouldCacheStringRepresentation() {
+            Version v = Version.valueOf("1.2.3-rc.1+build.5");
+            assertEquals("1.2.3-rc.1+build.5", v.toString());
+            assertSame(v.toString(), v.toString());
+            assertSame(v.getPreReleaseVersion(), v.getPreReleaseVersion());
+        }
+
+        @Test
+        public void shouldAppendStringRepresentationToStringBuilder() {
+            Version v = Version.valueOf("1.20.300-rc.1+build.5");
+            StringBuilder sb = new StringBuilder("v=");
+            assertSame(sb, v.appendTo(sb));
+            assertEquals("v=1.20.300-rc.1+build.5", sb.toString());
+        }
+
+        @Test
+        public void shouldAppendStringRepresentationToAppendable() throws IOException {
+            Version v = Version.valueOf("0.10.1-alpha+001");
+            StringWriter out = new StringWriter();
+            v.appendTo((Appendable) out);
+            assertEquals("0.10.1-alpha+001", out.toString());
+        }
+
+        @Test
+        public void shouldWriteStringRepresentationToByteArray() {
+            Version v = Version.valueOf("10.0.2147483647-beta.2+exp");
+            byte[] dst = new byte[64];
+            int end = v.writeTo(dst, 3);
+            assertEquals(
+                "10.0.2147483647-beta.2+exp",
+                new String(dst, 3, end - 3, StandardCharsets.US_ASCII)
+            );
+            assertThrows(IndexOutOfBoundsException.class, () -> v.writeTo(dst, 50));
+            assertEquals(0, dst[50]);
+        }
+
+        @Test
+        public void shouldWriteStringRepresentationToByteBuffer() {
+            Version v = Version.valueOf("1.0.0-rc.1");
+            for (ByteBuffer dst : new ByteBuffer[] {
+                ByteBuffer.allocate(16),
+                ByteBuffer.allocateDirect(16)
+            }) {
+                dst.put((byte) '@');
+                assertSame(dst, v.writeTo(dst));
+                assertEquals(11, dst.position());
+                dst.flip().position(1);
+                assertEquals("1.0.0-rc.1", StandardCharsets.US_ASCII.decode(dst).toString());
+                dst.clear().position(8);
+                assertThrows(BufferOverflowException.class, () -> v.writeTo(dst));
+                assertEquals(8, dst.position());
+            }
+        }
+
+        @Test
+        public void shouldParseValidVersionWithoutThrowing() {
+            assertEquals(
+                Version.valueOf("1.2.3-rc.1+build.5"),
+                Version.tryParse("1.2.3-rc.1+build.5").get()
+            );
+        }
+
+        @Test
+        public void shouldReturnEmptyOptionalForInvalidVersion() {
+            assertFalse(Version.tryParse("1.2.3-").isPresent());
+            assertFalse(Version.tryParse("01.2.3").isPresent());
+            assertFalse(Version.tryParse("2147483648.0.0").isPresent());
+            assertFalse(Version.tryParse("").isPresent());
+            assertFalse(Version.tryParse(null).isPresent());
+        }
+
+        @Test
+        public void shouldCheckValidityWithoutThrowing() {
+            assertTrue(Version.isValid("1.2.3-rc.1+build.5"));
+            assertTrue(Version.isValid("1.2"));
+            assertFalse(Version.isValid("1.2.3-rc..1"));
+            assertFalse(Version.isValid("1.2.3+build+5"));
+            assertFalse(Version.isValid("2147483648.0.0"));
+            assertFalse(Version.isValid(""));
+            assertFalse(Version.isValid(null));
+        }
+
         @Test
         public void mayHavePreReleaseFollowingPatchAppendedWithHyphen() {
             Version v = Version.valueOf("1.2.3-alpha");
@@ -518,6 +641,58 @@ public class VersionTest {
                 .build();
             assertEquals(Version.valueOf("1.0.0-alpha+build"), version);
         }
+
+        @Test
+        public void shouldBuildVersionFromTypedParts() {
+            Version version = new Version.Builder()
+                .major(1)
+                .minor(2)
+                .patch(3)
+                .preRelease("rc", "1")
+                .buildMetadata("build", "007")
+                .build();
+            assertEquals("1.2.3-rc.1+build.007", version.toString());
+            assertTrue(version.isIdenticalTo(Version.valueOf("1.2.3-rc.1+build.007")));
+            assertEquals("2.0.0", new Version.Builder().major(2).build().toString());
+        }
+
+        @Test
+        public void shouldUnsetMetadataWithNoIdentifiers() {
+            Version.Builder builder = new Version.Builder("1.0.0")
+                .setPreReleaseVersion("alpha")
+                .setBuildMetadata("build");
+            assertEquals("1.0.0", builder.preRelease().buildMetadata().build().toString());
+            builder.setPreReleaseVersion("beta").setPreReleaseVersion(null);
+            assertEquals("1.0.0", builder.build().toString());
+        }
+
+        @Test
+        public void shouldValidatePartsWhenTheyAreSet() {
+            Version.Builder builder = new Version.Builder();
+            assertThrows(IllegalArgumentException.class, () -> builder.major(-1));
+            assertThrows(IllegalArgumentException.class, () -> builder.preRelease("rc", "01"));
+            assertThrows(IllegalArgumentException.class, () -> builder.preRelease("r c"));
+            assertThrows(IllegalArgumentException.class, () -> builder.buildMetadata(""));
+            assertThrows(ParseException.class, () -> builder.setNormalVersion("1.0.0-rc"));
+            assertThrows(ParseException.class, () -> builder.setPreReleaseVersion("rc..1"));
+            assertThrows(ParseException.class, () -> builder.setBuildMetadata("build+1"));
+            assertThrows(IllegalArgumentException.class, builder::build);
+        }
+
+        @Test
+        public void shouldRequireNormalVersionToBuild() {
+            assertThrows(IllegalArgumentException.class, () -> new Version.Builder().build());
+            assertThrows(
+                IllegalArgumentException.class,
+                () -> new Version.Builder().setPreReleaseVersion("beta").build()
+            );
+            assertThrows(
+                IllegalArgumentException.class,
+                () -> new Version.Builder().buildMetadata("build").build()
+            );
+            assertEquals("0.0.0", new Version.Builder().major(0).build().toString());
+            assertEquals("0.2.0", new Version.Builder().minor(2).build().toString());
+        }
     }
     @Nested
     public static class BuildAwareOrderTest {
@@ -544,6 +719,118 @@ public class VersionTest {
             }
         }
     }
+    @Nested
+    public static class BuildAwareKeyTest {
+
+        @Test
+        public void shouldDistinguishVersionsByBuildMetadata() {
+            Version v1 = Version.valueOf("1.0.0-rc.1+build.1");
+            Version v2 = Version.valueOf("1.0.0-rc.1+build.2");
+            assertEquals(v1, v2);
+            assertNotEquals(v1.buildAwareKey(), v2.buildAwareKey());
+            assertNotEquals(v1.fingerprint(), v2.fingerprint());
+            assertNotEquals(
+                Version.valueOf("1.0.0").buildAwareKey(),
+                Version.valueOf("1.0.0+0").buildAwareKey()
+            );
+            Map<Version.BuildAwareKey, String> map = new HashMap<>();
+            map.put(v1.buildAwareKey(), "first");
+            map.put(v2.buildAwareKey(), "second");
+            assertEquals(2, map.size());
+            assertEquals("first", map.get(Version.valueOf("1.0.0-rc.1+build.1").buildAwareKey()));
+        }
+
+        @Test
+        public void shouldBeConsistentWithBuildAwareOrder() {
+            Version v1 = Version.valueOf("1.0.0+build.007");
+            Version v2 = Version.valueOf("1.0.0+build.7");
+            assertEquals(0, Version.BUILD_AWARE_ORDER.compare(v1, v2));
+            assertEquals(v1.buildAwareKey(), v2.buildAwareKey());
+            assertEquals(v1.buildAwareKey().hashCode(), v2.buildAwareKey().hashCode());
+            assertEquals(v1.fingerprint(), v2.fingerprint());
+        }
+
+        @Test
+        public void shouldCacheKeyAndFingerprintOnInstance() {
+            Version version = Version.valueOf("2.1.0-beta+exp.sha.5114f85");
+            assertSame(version.buildAwareKey(), version.buildAwareKey());
+            assertSame(version, version.buildAwareKey().version());
+            assertEquals(
+                version.fingerprint(),
+                new Version.Builder("2.1.0")
+                    .preRelease("beta")
+                    .buildMetadata("exp", "sha", "5114f85")
+                    .build()
+                    .fingerprint()
+            );
+        }
+    }
+
+    @Nested
+    public static class StringOrderTest {
+
+        @Test
+        public void shouldCompareVersionStringsByPrecedence() {
+            String[] versions = {
+                "0.9",
+                "1.0.0-0.3.7",
+                "1.0.0-alpha",
+                "1.0.0-alpha.1",
+                "1.0.0-alpha.beta",
+                "1.0.0-beta.2",
+                "1.0.0-beta.11",
+                "1.0.0-rc.1",
+                "1.0.0-rc.1.0",
+                "1.0.0",
+                "1.0.1",
+                "1.2",
+                "1.10.0-99999999999999999999",
+                "1.10.0-100000000000000000000",
+                "1.10.0-x-y",
+                "1.10.0",
+                "10"
+            };
+            for (int i = 1; i < versions.length; i++) {
+                assertTrue(0 > Version.compareStrings(versions[i-1], versions[i]));
+                assertTrue(0 < Version.STRING_ORDER.compare(versions[i], versions[i-1]));
+            }
+            assertEquals(0, Version.compareStrings("1.2+build.1", "1.2.0+build.2"));
+            assertEquals(0, Version.compareStrings("1.0.0-rc.1+a", new StringBuilder("1.0.0-rc.1")));
+        }
+
+        @Test
+        public void shouldAgreeWithCompareToOnRandomVersions() {
+            Random random = new Random(18);
+            String[] idents = {"0", "1", "2", "10", "a", "b", "a1", "1a", "-", "rc-1", "123456789012345678901"};
+            for (int i = 0; i < 20000; i++) {
+                String s1 = randomVersion(random, idents);
+                String s2 = randomVersion(random, idents);
+                assertEquals(
+                    Integer.signum(Version.valueOf(s1).compareTo(Version.valueOf(s2))),
+                    Integer.signum(Version.compareStrings(s1, s2)),
+                    s1 + " vs " + s2
+                );
+            }
+        }
+
+        private static String randomVersion(Random random, String[] idents) {
+            StringBuilder sb = new StringBuilder().append(random.nextInt(3));
+            for (int i = random.nextInt(3); i > 0; i--) {
+                sb.append('.').append(random.nextInt(12));
+            }
+            if (random.nextBoolean()) {
+                sb.append('-').append(idents[random.nextInt(idents.length)]);
+                for (int i = random.nextInt(3); i > 0; i--) {
+                    sb.append('.').append(idents[random.nextInt(idents.length)]);
+                }
+            }
+            if (random.nextInt(4) == 0) {
+                sb.append("+build.").append(random.nextInt(3));
+            }
+            return sb.toString();
+        }
+    }
+
     @Nested
     public static class SerializationTest {
 
@@ -571,6 +858,27 @@ public class VersionTest {
             }
         }
 
+        @Test
+        public void shouldSerializeIntoCompactForm() throws IOException, ClassNotFoundException {
+            Version version = Version.valueOf("1.0.0-rc.1+build.1");
+            byte[] bytes = pickle(version);
+            assertTrue(bytes.length < 100, "Serialized into " + bytes.length + " bytes");
+            assertEquals("1.0.0-rc.1+build.1", unpickle(bytes, Version.class).toString());
+        }
+
+        @Test
+        public void shouldReadSeveralVersionsFromOneStream() throws IOException, ClassNotFoundException {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            ObjectOutputStream oos = new ObjectOutputStream(baos);
+            oos.writeObject(Version.valueOf("1.0.0-rc.1+build.1"));
+            oos.reset();
+            oos.writeObject(Version.valueOf("2.0.0-rc.1+build.1"));
+            oos.close();
+            ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray()));
+            assertEquals("1.0.0-rc.1+build.1", ois.readObject().toString());
+            assertEquals("2.0.0-rc.1+build.1", ois.readObject().toString());
+        }
+
         private static <T extends Serializable> byte[] pickle(T obj)
                 throws IOException
         {
@@ -0,0 +1,146 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2012-2016 Zafar Khaja <zafarkhaja@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.zafarkhaja.semver.compiling;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author Zafar Khaja &lt;zafarkhaja@gmail.com&gt;
+ */
+public class TokenBufferTest {
+
+    private enum Type { NUM, DOT, WORD, EOI }
+
+    @Test
+    public void shouldStoreTokensAsOffsetsIntoInput() {
+        TokenBuffer<Type> buffer = bufferOf("12.ab");
+        assertEquals(4, buffer.size());
+        assertEquals(Type.NUM, buffer.type(0));
+        assertEquals(3, buffer.start(2));
+        assertEquals(5, buffer.end(2));
+        assertEquals("ab", buffer.lexeme(2));
+        assertEquals("", buffer.lexeme(3));
+        assertThrows(IndexOutOfBoundsException.class, () -> buffer.type(4));
+    }
+
+    @Test
+    public void shouldGrowBeyondInitialCapacity() {
+        TokenBuffer<Type> buffer = new TokenBuffer<>("", Type.values());
+        for (int i = 0; i < 100; i++) {
+            buffer.add(Type.values()[i % 3], i, i + 1);
+        }
+        assertEquals(100, buffer.size());
+        assertEquals(Type.DOT, buffer.type(97));
+        assertEquals(99, buffer.start(99));
+    }
+
+    @Test
+    public void shouldConsumeTokensWithLookahead() {
+        TokenBuffer<Type> buffer = bufferOf("12.ab");
+        assertTrue(buffer.positiveLookahead(Type.NUM));
+        assertEquals(Type.DOT, buffer.lookahead(2));
+        assertEquals(0, buffer.consume());
+        assertEquals(Type.DOT, buffer.lookahead());
+        assertNull(buffer.lookahead(4));
+        buffer.consume();
+        buffer.consume();
+        assertEquals(3, buffer.consume());
+        assertEquals(-1, buffer.consume());
+        assertFalse(buffer.positiveLookahead(Type.EOI));
+    }
+
+    @Test
+    public void shouldParseIntegersWithoutMaterializingLexemes() {
+        TokenBuffer<Type> buffer = new TokenBuffer<>("0 2147483647 2147483648", Type.values());
+        buffer.add(Type.NUM, 0, 1);
+        buffer.add(Type.NUM, 2, 12);
+        buffer.add(Type.NUM, 13, 23);
+        assertEquals(0, buffer.parseInt(0));
+        assertEquals(Integer.MAX_VALUE, buffer.parseInt(1));
+        assertThrows(NumberFormatException.class, () -> buffer.parseInt(2));
+    }
+
+    @Test
+    public void shouldJoinLexemesOfTokenRanges() {
+        TokenBuffer<Type> buffer = new TokenBuffer<>("ab.1 .c", Type.values());
+        buffer.add(Type.WORD, 0, 2);
+        buffer.add(Type.DOT, 2, 3);
+        buffer.add(Type.NUM, 3, 4);
+        buffer.add(Type.DOT, 5, 6);
+        buffer.add(Type.WORD, 6, 7);
+        assertEquals("ab.1", buffer.lexemes(0, 3));
+        assertEquals("ab.1.c", buffer.lexemes(0, 5));
+        assertEquals("", buffer.lexemes(2, 2));
+    }
+
+    @Test
+    public void shouldSplitTokenRangesBySeparator() {
+        TokenBuffer<Type> buffer = new TokenBuffer<>("ab1 .c..", Type.values());
+        buffer.add(Type.WORD, 0, 2);
+        buffer.add(Type.NUM, 2, 3);
+        buffer.add(Type.DOT, 4, 5);
+        buffer.add(Type.WORD, 5, 6);
+        buffer.add(Type.DOT, 6, 7);
+        buffer.add(Type.DOT, 7, 8);
+        assertArrayEquals(new String[] {"ab1", "c", "", ""}, buffer.split(0, 6, Type.DOT));
+        assertArrayEquals(new String[] {"ab1"}, buffer.split(0, 2, Type.DOT));
+        assertNull(buffer.split(3, 3, Type.DOT));
+    }
+
+    @Test
+    public void shouldPullTokensFromSourceOnDemand() {
+        int[] scans = {0};
+        TokenSource<Type> source = tokens -> {
+            scans[0]++;
+            int start = tokens.size() == 0 ? 0 : tokens.end(tokens.size() - 1);
+            if (start == tokens.input().length()) {
+                tokens.add(Type.EOI, start, start);
+                return false;
+            }
+            tokens.add(Type.NUM, start, start + 1);
+            return true;
+        };
+        TokenBuffer<Type> buffer = new TokenBuffer<>("123", Type.values(), source);
+        assertEquals(0, buffer.size());
+        assertTrue(buffer.positiveLookahead(Type.NUM));
+        assertEquals(1, scans[0]);
+        assertEquals(Type.NUM, buffer.lookahead(2));
+        assertEquals(2, scans[0]);
+        assertEquals(Type.EOI, buffer.type(3));
+        assertFalse(buffer.has(4));
+        assertEquals(4, scans[0]);
+        assertEquals("12", buffer.lexemes(0, 2));
+    }
+
+    private static TokenBuffer<Type> bufferOf(String input) {
+        TokenBuffer<Type> buffer = new TokenBuffer<>(input, Type.values());
+        buffer.add(Type.NUM, 0, 2);
+        buffer.add(Type.DOT, 2, 3);
+        buffer.add(Type.WORD, 3, 5);
+        buffer.add(Type.EOI, 5, 5);
+        return buffer;
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2012-2016 Zafar Khaja <zafarkhaja@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.zafarkhaja.semver.expr;
+
+import com.github.zafarkhaja.semver.Version;
+import com.github.zafarkhaja.semver.expr.ExpressionCache.CompiledExpression;
+import com.github.zafarkhaja.semver.expr.ExpressionCache.Dialect;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author Zafar Khaja &lt;zafarkhaja@gmail.com&gt;
+ */
+public class ExpressionCacheTest {
+
+    @Test
+    public void shouldDetectDialectOfExpression() {
+        assertEquals(Dialect.JSEMVER, ExpressionCache.compile(">=1.0.0 & <2.0.0").getDialect());
+        assertEquals(Dialect.MAVEN, ExpressionCache.compile("[1.0.0,2.0.0)").getDialect());
+        assertEquals(Dialect.INVALID, ExpressionCache.compile("1.0.0 &").getDialect());
+    }
+
+    @Test
+    public void shouldReturnSharedCompiledExpressionForSameString() {
+        ExpressionCache cache = new ExpressionCache(16);
+        CompiledExpression expr = cache.get(">=1.0.0 & <2.0.0");
+        assertSame(expr, cache.get(">=1.0.0 & <2.0.0"));
+        assertTrue(expr.test(Version.valueOf("1.5.0")));
+        assertFalse(expr.test(Version.valueOf("2.0.0")));
+        assertEquals(1, cache.hitCount());
+        assertEquals(1, cache.missCount());
+    }
+
+    @Test
+    public void shouldCacheInvalidExpressions() {
+        ExpressionCache cache = new ExpressionCache(16);
+        CompiledExpression expr = cache.get("not an expression");
+        assertSame(expr, cache.get("not an expression"));
+        assertFalse(expr.test(Version.valueOf("1.0.0")));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void shouldBeUsedByVersionSatisfiesWhenInstalledGlobally() {
+        ExpressionCache previous = ExpressionCache.global();
+        ExpressionCache cache = new ExpressionCache(16);
+        ExpressionCache.setGlobal(cache);
+        try {
+            Version version = Version.valueOf("1.2.3");
+            assertTrue(version.satisfies("[1.0.0,2.0.0)"));
+            assertTrue(version.satisfies("[1.0.0,2.0.0)"));
+            assertEquals(1, cache.hitCount());
+            assertEquals(1, cache.missCount());
+        } finally {
+            ExpressionCache.setGlobal(previous);
+        }
+    }
+
+    @Test
+    public void shouldCompileWithoutCacheWhenDisabled() {
+        ExpressionCache previous = ExpressionCache.global();
+        ExpressionCache.setGlobal(null);
+        try {
+            Version version = Version.valueOf("1.2.3");
+            assertTrue(version.satisfies(">1.0.0"));
+            assertFalse(version.satisfies("1.0.0 &"));
+        } finally {
+            ExpressionCache.setGlobal(previous);
+        }
+    }
+}
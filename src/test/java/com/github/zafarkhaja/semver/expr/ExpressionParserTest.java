@@ -23,7 +23,10 @@
  */
 package com.github.zafarkhaja.semver.expr;
 
+import com.github.zafarkhaja.semver.ParseException;
 import com.github.zafarkhaja.semver.Version;
+import com.github.zafarkhaja.semver.compiling.LexerException;
+import com.github.zafarkhaja.semver.compiling.UnexpectedTokenException;
 import org.junit.jupiter.api.Test;
 
 import java.util.function.Predicate;
@@ -224,4 +227,105 @@ public class ExpressionParserTest {
         assertTrue(expr.test(Version.valueOf("1.5.0")));
         assertFalse(expr.test(Version.valueOf("2.5.0")));
     }
+
+    @Test
+    public void shouldParseAndEvaluateLongChainsAndDeepNesting() {
+        StringBuilder chain = new StringBuilder(">=0.0.1");
+        for (int i = 0; i < 100000; i++) {
+            chain.append(i % 2 == 0 ? " & " : " | ").append("<").append(i + 1).append(".0.0");
+        }
+        Predicate<Version> expr = new ExpressionParser(new ExprLexer()).parse(chain.toString());
+        assertTrue(expr.test(Version.valueOf("0.5.0")));
+        assertFalse(expr.test(Version.valueOf("0.0.0")));
+
+        StringBuilder nested = new StringBuilder();
+        for (int i = 0; i < 100000; i++) {
+            nested.append(i % 2 == 0 ? "!(" : "(");
+        }
+        nested.append("1.0.0");
+        for (int i = 0; i < 100000; i++) {
+            nested.append(')');
+        }
+        expr = new ExpressionParser(new ExprLexer()).parse(nested.toString());
+        assertTrue(expr.test(Version.valueOf("1.0.0")));
+        assertFalse(expr.test(Version.valueOf("2.0.0")));
+
+        StringBuilder nestedChain = new StringBuilder();
+        for (int i = 0; i < 100000; i++) {
+            nestedChain.append("(").append(i + 2).append(".0.0 | ");
+        }
+        nestedChain.append("1.0.0");
+        for (int i = 0; i < 100000; i++) {
+            nestedChain.append(')');
+        }
+        expr = new ExpressionParser(new ExprLexer()).parse(nestedChain.toString());
+        assertTrue(expr.test(Version.valueOf("1.0.0")));
+        assertTrue(expr.test(Version.valueOf("50000.0.0")));
+        assertFalse(expr.test(Version.valueOf("0.1.0")));
+    }
+
+    @Test
+    public void shouldTreatBooleanOperatorsAsRightAssociative() {
+        ExpressionParser parser = new ExpressionParser(new ExprLexer());
+        Predicate<Version> andOr = parser.parse(">=2.0.0 & 1.0.0 | 1.5.0");
+        assertFalse(andOr.test(Version.valueOf("1.5.0")));
+        assertFalse(andOr.test(Version.valueOf("2.0.0")));
+        Predicate<Version> orAnd = parser.parse("1.5.0 | 1.0.0 & >=2.0.0");
+        assertTrue(orAnd.test(Version.valueOf("1.5.0")));
+        assertFalse(orAnd.test(Version.valueOf("1.0.0")));
+        Predicate<Version> mixed = parser.parse("<1.0.0 | >=2.0.0 & <3.0.0 | 4.0.0");
+        assertTrue(mixed.test(Version.valueOf("0.5.0")));
+        assertTrue(mixed.test(Version.valueOf("2.5.0")));
+        assertFalse(mixed.test(Version.valueOf("3.5.0")));
+        assertFalse(mixed.test(Version.valueOf("1.5.0")));
+    }
+
+    @Test
+    public void shouldParseNegatedAndNestedGroups() {
+        ExpressionParser parser = new ExpressionParser(new ExprLexer());
+        Predicate<Version> expr = parser.parse("!(1.0.0 | 2.0.0) & <3.0.0");
+        assertTrue(expr.test(Version.valueOf("2.5.0")));
+        assertFalse(expr.test(Version.valueOf("2.0.0")));
+        assertFalse(expr.test(Version.valueOf("3.0.0")));
+        expr = parser.parse("((1.x & !(1.2.x)) | (((2.0.0))))");
+        assertTrue(expr.test(Version.valueOf("1.3.0")));
+        assertFalse(expr.test(Version.valueOf("1.2.5")));
+        assertTrue(expr.test(Version.valueOf("2.0.0")));
+        assertFalse(expr.test(Version.valueOf("2.0.1")));
+    }
+
+    @Test
+    public void shouldReportPositionOfUnexpectedToken() {
+        assertUnexpectedTokenAt(7, "1.0.0 &");
+        assertUnexpectedTokenAt(14, "(1.0.0 | 2.0.0");
+        assertUnexpectedTokenAt(8, "1.0.0 | )");
+        assertUnexpectedTokenAt(6, "1.0.0 2.0.0");
+        assertUnexpectedTokenAt(5, "((1)))");
+    }
+
+    private static void assertUnexpectedTokenAt(int position, String input) {
+        ExpressionParser parser = new ExpressionParser(new ExprLexer());
+        UnexpectedTokenException e = assertThrows(
+            UnexpectedTokenException.class,
+            () -> parser.parse(input),
+            input
+        );
+        assertEquals(position, e.unexpectedToken.position, input);
+    }
+
+    @Test
+    public void shouldBuildMetadataOfVersionsFromTokens() {
+        ExpressionParser parser = new ExpressionParser(new ExprLexer());
+        Predicate<Version> expr = parser.parse("1.0.0-rc .1+b");
+        assertTrue(expr.test(Version.valueOf("1.0.0-rc.1")));
+        assertThrows(ParseException.class, () -> parser.parse("1.0.0-a..b"));
+        assertThrows(ParseException.class, () -> parser.parse("1.0.0+b."));
+    }
+
+    @Test
+    public void shouldStopLexingAtFirstParseError() {
+        ExpressionParser parser = new ExpressionParser(new ExprLexer());
+        assertThrows(UnexpectedTokenException.class, () -> parser.parse("&& @"));
+        assertThrows(LexerException.class, () -> parser.parse(">=1.0.0 @"));
+    }
 }
@@ -26,6 +26,10 @@ package com.github.zafarkhaja.semver.expr;
 import com.github.zafarkhaja.semver.expr.ExprLexer.ExprToken;
 import com.github.zafarkhaja.semver.compiling.LexerException;
 import com.github.zafarkhaja.semver.util.Stream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -90,4 +94,81 @@ public class LexerTest {
         }
         fail("Should raise error on illegal character");
     }
+
+    @Test
+    public void shouldProduceSameTokensAsPatternMatching() {
+        String[] corpus = {
+            "", " ", "1.0.0", ">=1.0.0 & <2.0.0", "~1.2 | ^3.x", "!(1.2.3)",
+            "1.0.0-alpha.1+build.007", "01.2", "1a.b2", "1.x.X.*", "xyz",
+            "=1 == !=2 ! >< <= >=3", "1.0 - 2.0", "\t1\n&\r\u000B2\f",
+            "\u00e9t\u00e91", "\ud835\udc00\ud835\udc001", "1 @ 2", "1.0.0\u00a0",
+            "\ud835", "\u0661\u0662", "a\u0661",
+        };
+        for (String input : corpus) {
+            assertSameTokens(input);
+        }
+        Random random = new Random(21);
+        String alphabet = "0123456789xX*.-+=!<>~^&|() \tab\u00e9\u0661@";
+        for (int i = 0; i < 10000; i++) {
+            StringBuilder sb = new StringBuilder();
+            for (int j = random.nextInt(20); j > 0; j--) {
+                sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            assertSameTokens(sb.toString());
+        }
+    }
+
+    private static void assertSameTokens(String input) {
+        String expected;
+        try {
+            expected = describe(tokenizeWithPatterns(input));
+        } catch (LexerException e) {
+            expected = e.toString();
+        }
+        String actual;
+        try {
+            actual = describe(new ExprLexer().tokenize(input).toArray());
+        } catch (LexerException e) {
+            actual = e.toString();
+        }
+        assertEquals(expected, actual, input);
+    }
+
+    private static String describe(Object[] tokens) {
+        StringBuilder sb = new StringBuilder();
+        for (Object object : tokens) {
+            ExprToken token = (ExprToken) object;
+            sb.append(((ExprToken.Type) token.type).name()).append('(')
+              .append(token.lexeme).append(")@").append(token.position).append(' ');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * The original tokenizer trying the patterns of all types in order.
+     */
+    private static ExprToken[] tokenizeWithPatterns(String input) {
+        List<ExprToken> tokens = new ArrayList<>();
+        int tokenPos = 0;
+        while (!input.isEmpty()) {
+            boolean matched = false;
+            for (ExprToken.Type tokenType : ExprToken.Type.values()) {
+                Matcher matcher = tokenType.pattern.matcher(input);
+                if (matcher.find()) {
+                    matched = true;
+                    input = matcher.replaceFirst("");
+                    if (tokenType != WHITESPACE) {
+                        tokens.add(new ExprToken(tokenType, matcher.group(), tokenPos));
+                    }
+                    tokenPos += matcher.end();
+                    break;
+                }
+            }
+            if (!matched) {
+                throw new LexerException(input);
+            }
+        }
+        tokens.add(new ExprToken(EOI, null, tokenPos));
+        return tokens.toArray(new ExprToken[0]);
+    }
 }
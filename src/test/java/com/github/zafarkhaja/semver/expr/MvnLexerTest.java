@@ -0,0 +1,129 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2012-2016 Zafar Khaja <zafarkhaja@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.zafarkhaja.semver.expr;
+
+import com.github.zafarkhaja.semver.compiling.LexerException;
+import com.github.zafarkhaja.semver.expr.MvnLexer.MvnToken;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static com.github.zafarkhaja.semver.expr.MvnLexer.MvnToken.Type.*;
+
+/**
+ *
+ * @author Zafar Khaja &lt;zafarkhaja@gmail.com&gt;
+ */
+public class MvnLexerTest {
+
+    @Test
+    public void shouldTokenizeVersionRange() {
+        MvnToken[] expected = {
+            new MvnToken(LEFT_SQBR,     "[",   0),
+            new MvnToken(NUMERIC,       "1",   1),
+            new MvnToken(DOT,           ".",   2),
+            new MvnToken(ALPHA_NUMERIC, "01",  3),
+            new MvnToken(COMMA,         ",",   5),
+            new MvnToken(ALPHA_NUMERIC, "2rc", 6),
+            new MvnToken(RIGHT_PAREN,   ")",   9),
+            new MvnToken(EOI,           null,  10),
+        };
+        assertArrayEquals(expected, new MvnLexer().tokenize("[1.01,2rc)").toArray());
+    }
+
+    @Test
+    public void shouldProduceSameTokensAsPatternMatching() {
+        String[] corpus = {
+            "", "[1.0,2.0)", "(,1.0],[1.2,)", "1.0.0-alpha.1+build.007", "00", "0a",
+            "012", "1a2.b", "[1.5]", "1 2", "\u00e9t\u00e91", "\ud835\udc00\ud835\udc001",
+        };
+        for (String input : corpus) {
+            assertSameTokens(input);
+        }
+        Random random = new Random(22);
+        String alphabet = "0123456789.-+[](),ax\u00e9 ";
+        for (int i = 0; i < 10000; i++) {
+            StringBuilder sb = new StringBuilder();
+            for (int j = random.nextInt(20); j > 0; j--) {
+                sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            assertSameTokens(sb.toString());
+        }
+    }
+
+    private static void assertSameTokens(String input) {
+        String expected;
+        try {
+            expected = describe(tokenizeWithPatterns(input));
+        } catch (LexerException e) {
+            expected = e.toString();
+        }
+        String actual;
+        try {
+            actual = describe(new MvnLexer().tokenize(input).toArray());
+        } catch (LexerException e) {
+            actual = e.toString();
+        }
+        assertEquals(expected, actual, input);
+    }
+
+    private static String describe(Object[] tokens) {
+        StringBuilder sb = new StringBuilder();
+        for (Object object : tokens) {
+            MvnToken token = (MvnToken) object;
+            sb.append(((MvnToken.Type) token.type).name()).append('(')
+              .append(token.lexeme).append(")@").append(token.position).append(' ');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * The original tokenizer trying the patterns of all types in order.
+     */
+    private static MvnToken[] tokenizeWithPatterns(String input) {
+        List<MvnToken> tokens = new ArrayList<>();
+        int tokenPos = 0;
+        while (!input.isEmpty()) {
+            boolean matched = false;
+            for (MvnToken.Type tokenType : MvnToken.Type.values()) {
+                Matcher matcher = tokenType.pattern.matcher(input);
+                if (matcher.find()) {
+                    matched = true;
+                    input = matcher.replaceFirst("");
+                    tokens.add(new MvnToken(tokenType, matcher.group(), tokenPos));
+                    tokenPos += matcher.end();
+                    break;
+                }
+            }
+            if (!matched) {
+                throw new LexerException(input);
+            }
+        }
+        tokens.add(new MvnToken(EOI, null, tokenPos));
+        return tokens.toArray(new MvnToken[0]);
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2012-2016 Zafar Khaja <zafarkhaja@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.zafarkhaja.semver.util;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author Zafar Khaja &lt;zafarkhaja@gmail.com&gt;
+ */
+public class BoundedCacheTest {
+
+    @Test
+    public void shouldComputeValueOnlyOnMiss() {
+        BoundedCache<String, Integer> cache = new BoundedCache<>(8);
+        assertEquals(Integer.valueOf(3), cache.get("abc", String::length));
+        assertEquals(Integer.valueOf(3), cache.get("abc", key -> fail("Should be cached")));
+        assertEquals(1, cache.hitCount());
+        assertEquals(1, cache.missCount());
+    }
+
+    @Test
+    public void shouldNeverExceedMaximumSize() {
+        BoundedCache<Integer, Integer> cache = new BoundedCache<>(10);
+        for (int i = 0; i < 1000; i++) {
+            cache.put(i, i);
+        }
+        assertTrue(cache.size() <= 10);
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedEntry() {
+        BoundedCache<String, String> cache = new BoundedCache<>(1);
+        cache.put("a", "a");
+        cache.put("b", "b");
+        assertNull(cache.get("a"));
+        assertEquals("b", cache.get("b"));
+    }
+
+    @Test
+    public void shouldNotCacheNullValues() {
+        BoundedCache<String, String> cache = new BoundedCache<>(4);
+        assertNull(cache.get("a", key -> null));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void shouldRemoveAllEntriesOnClear() {
+        BoundedCache<Integer, Integer> cache = new BoundedCache<>(64);
+        for (int i = 0; i < 64; i++) {
+            cache.put(i, i);
+        }
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void shouldRaiseErrorForNonPositiveMaximumSize() {
+        assertThrows(IllegalArgumentException.class, () -> new BoundedCache<>(0));
+    }
+}